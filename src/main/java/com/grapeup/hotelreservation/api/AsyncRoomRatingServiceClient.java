@@ -0,0 +1,118 @@
+package com.grapeup.hotelreservation.api;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grapeup.hotelreservation.dto.RoomRatingDto;
+import com.grapeup.hotelreservation.exception.RatingServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Calls rating-service with the JDK's asynchronous HTTP client, so no
+ * thread waits while a request is in flight. Instances are picked through
+ * the same load balancer the Feign client uses, and the calls share the
+ * circuit breaker and last-known ratings of the blocking client.
+ */
+@Component
+public class AsyncRoomRatingServiceClient {
+
+    private static final String SERVICE_ID = "rating-service";
+
+    private static final TypeReference<List<RoomRatingDto>> RATING_LIST = new TypeReference<>() { };
+
+    private final Supplier<URI> baseUri;
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final Duration timeout;
+
+    private final ResilientRoomRatingServiceClient resilientClient;
+
+    @Autowired
+    public AsyncRoomRatingServiceClient(LoadBalancerClient loadBalancerClient, ObjectMapper objectMapper,
+                                        ResilientRoomRatingServiceClient resilientClient,
+                                        @Value("${reservation.ratings.client.timeout:1s}") Duration timeout) {
+        this(() -> {
+            ServiceInstance instance = loadBalancerClient.choose(SERVICE_ID);
+            if (instance == null) {
+                throw new RatingServiceUnavailableException("No " + SERVICE_ID + " instance available");
+            }
+            return instance.getUri();
+        }, HttpClient.newBuilder().connectTimeout(timeout).build(), objectMapper, timeout, resilientClient);
+    }
+
+    AsyncRoomRatingServiceClient(Supplier<URI> baseUri, HttpClient httpClient, ObjectMapper objectMapper,
+                                 Duration timeout, ResilientRoomRatingServiceClient resilientClient) {
+        this.baseUri = baseUri;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.resilientClient = resilientClient;
+    }
+
+    public CompletableFuture<List<RoomRatingDto>> getAll() {
+        return resilientClient.getAllAsync(() -> get("/ratings")
+                .thenApply(body -> read(body.orElse("[]"), RATING_LIST)));
+    }
+
+    public CompletableFuture<Optional<RoomRatingDto>> getByRoomId(Long roomId) {
+        return resilientClient.getByRoomIdAsync(roomId, () -> get("/ratings/" + roomId).thenApply(body -> body
+                .filter(json -> !json.isEmpty())
+                .map(json -> read(json, new TypeReference<RoomRatingDto>() { }))));
+    }
+
+    // Completes with an empty body for 404 and fails with
+    // RatingServiceUnavailableException for anything but 200.
+    private CompletableFuture<Optional<String>> get(String path) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(baseUri.get().resolve(path))
+                    .timeout(timeout)
+                    .GET()
+                    .build();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, failure) -> {
+                    if (failure != null) {
+                        throw new CompletionException(new RatingServiceUnavailableException(
+                                SERVICE_ID + " call failed: " + failure));
+                    }
+                    if (response.statusCode() == 404) {
+                        return Optional.empty();
+                    }
+                    if (response.statusCode() != 200) {
+                        throw new CompletionException(new RatingServiceUnavailableException(
+                                SERVICE_ID + " returned " + response.statusCode()));
+                    }
+                    return Optional.of(response.body());
+                });
+    }
+
+    private <T> T read(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.grapeup.hotelreservation.api;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.grapeup.hotelreservation.dto.RoomRatingDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Serves ratings from memory in front of the rating-service client. An
+ * entry older than the refresh interval is still returned while it is
+ * reloaded in the background; only entries nobody asked for during the
+ * whole TTL are loaded on the request path again. Rooms missing from the
+ * cache are loaded in micro-batches rather than one call per room.
+ * Refreshes run on a small pool of their own with a bounded queue; when it
+ * is full a refresh is skipped and the entry is refreshed on a later read.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(name = "reservation.ratings.source", havingValue = "remote", matchIfMissing = true)
+public class CachingRoomRatingServiceClient implements RoomRatingServiceClient {
+
+    private static final String ALL_RATINGS = "all";
+
+    private final LoadingCache<Long, Optional<RoomRatingDto>> ratings;
+
+    private final LoadingCache<String, List<RoomRatingDto>> allRatings;
+
+    private final MicroBatcher<Long, RoomRatingDto> batcher;
+
+    private final Executor executor;
+
+    @Autowired
+    public CachingRoomRatingServiceClient(@Qualifier(ResilientRoomRatingServiceClient.NAME) RoomRatingServiceClient delegate,
+                                          @Value("${reservation.ratings.cache.ttl:10m}") Duration ttl,
+                                          @Value("${reservation.ratings.cache.refresh-after:1m}") Duration refreshAfter,
+                                          @Value("${reservation.ratings.cache.max-size:10000}") long maxSize,
+                                          @Value("${reservation.ratings.batch.window:5ms}") Duration batchWindow,
+                                          @Value("${reservation.ratings.batch.max-size:100}") int maxBatchSize,
+                                          @Value("${reservation.ratings.cache.refresh-threads:2}") int refreshThreads,
+                                          @Value("${reservation.ratings.cache.refresh-queue-size:100}") int refreshQueueSize) {
+        this(delegate, ttl, refreshAfter, maxSize, batchWindow, maxBatchSize,
+                Ticker.systemTicker(), refreshExecutor(refreshThreads, refreshQueueSize));
+    }
+
+    CachingRoomRatingServiceClient(RoomRatingServiceClient delegate, Duration ttl, Duration refreshAfter,
+                                   long maxSize, Duration batchWindow, int maxBatchSize,
+                                   Ticker ticker, Executor executor) {
+        this.executor = executor;
+        // Room lookups missing the cache within one window share a call.
+        this.batcher = new MicroBatcher<>(roomIds -> loadBatch(delegate, roomIds), batchWindow, maxBatchSize);
+        this.ratings = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl.toNanos(), TimeUnit.NANOSECONDS)
+                .refreshAfterWrite(refreshAfter.toNanos(), TimeUnit.NANOSECONDS)
+                .ticker(ticker)
+                .executor(executor)
+                .build(new CacheLoader<Long, Optional<RoomRatingDto>>() {
+
+                    @Override
+                    public Optional<RoomRatingDto> load(Long roomId) {
+                        return Optional.ofNullable(batcher.load(roomId));
+                    }
+
+                    @Override
+                    public Map<Long, Optional<RoomRatingDto>> loadAll(Iterable<? extends Long> roomIds) {
+                        Map<Long, Optional<RoomRatingDto>> loaded = new LinkedHashMap<>();
+                        batcher.loadAll(toList(roomIds))
+                                .forEach((roomId, rating) -> loaded.put(roomId, Optional.ofNullable(rating)));
+                        return loaded;
+                    }
+                });
+        // Loading the whole list also fills the per-room entries.
+        this.allRatings = Caffeine.newBuilder()
+                .expireAfterWrite(ttl.toNanos(), TimeUnit.NANOSECONDS)
+                .refreshAfterWrite(refreshAfter.toNanos(), TimeUnit.NANOSECONDS)
+                .ticker(ticker)
+                .executor(executor)
+                .build(key -> {
+                    List<RoomRatingDto> all = delegate.getAll();
+                    all.forEach(rating -> ratings.put(rating.getId(), Optional.of(rating)));
+                    return all;
+                });
+    }
+
+    @Override
+    public List<RoomRatingDto> getAll() {
+        return allRatings.get(ALL_RATINGS);
+    }
+
+    @Override
+    public Optional<RoomRatingDto> getByRoomId(Long roomId) {
+        return ratings.get(roomId);
+    }
+
+    @Override
+    public List<RoomRatingDto> getByRoomIds(Collection<Long> roomIds) {
+        Map<Long, Optional<RoomRatingDto>> found = ratings.getAll(roomIds);
+        return roomIds.stream()
+                .distinct()
+                .map(found::get)
+                .filter(rating -> rating != null && rating.isPresent())
+                .map(Optional::get)
+                .collect(Collectors.toList());
+    }
+
+    // rating-service can only return several rooms as part of the full list.
+    // A lone miss keeps the per-room call, which is cheaper and shares one
+    // call with concurrent lookups of the same room.
+    private static Map<Long, RoomRatingDto> loadBatch(RoomRatingServiceClient delegate, Set<Long> roomIds) {
+        if (roomIds.size() == 1) {
+            Long roomId = roomIds.iterator().next();
+            return delegate.getByRoomId(roomId)
+                    .map(rating -> Map.of(roomId, rating))
+                    .orElse(Map.of());
+        }
+        return delegate.getByRoomIds(roomIds).stream()
+                .collect(Collectors.toMap(RoomRatingDto::getId, rating -> rating, (first, second) -> second));
+    }
+
+    @PreDestroy
+    public void close() {
+        batcher.close();
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+    }
+
+    // Caffeine catches the rejection, keeps serving the current entry and
+    // tries again on the next read past the refresh interval.
+    private static ExecutorService refreshExecutor(int threads, int queueSize) {
+        AtomicInteger created = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "rating-refresh-" + created.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static List<Long> toList(Iterable<? extends Long> roomIds) {
+        List<Long> list = new ArrayList<>();
+        roomIds.forEach(list::add);
+        return list;
+    }
+}
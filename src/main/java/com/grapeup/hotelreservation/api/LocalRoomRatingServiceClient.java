@@ -0,0 +1,109 @@
+package com.grapeup.hotelreservation.api;
+
+import com.grapeup.hotelreservation.dto.RoomRatingDto;
+import com.grapeup.hotelreservation.event.RoomRatingsSynchronizedEvent;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.repository.RoomRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Serves ratings from the local copy in the room table, which
+ * RoomRatingSynchronizer refreshes with one bulk call to rating-service.
+ * No request waits for rating-service, so its latency and outages only
+ * show up as older ratings.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(name = "reservation.ratings.source", havingValue = "local")
+public class LocalRoomRatingServiceClient implements RoomRatingServiceClient {
+
+    private RoomRepository roomRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), null);
+
+    public LocalRoomRatingServiceClient(RoomRepository roomRepository, TransactionTemplate transactionTemplate) {
+        this.roomRepository = roomRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Until the first synchronization the ratings come from the database
+    // and their age is unknown.
+    @PostConstruct
+    public void load() {
+        List<Room> rooms = transactionTemplate.execute(status -> {
+            List<Room> loaded = new ArrayList<>();
+            roomRepository.findAll().forEach(loaded::add);
+            return loaded;
+        });
+        snapshot = new Snapshot(toRatings(rooms), null);
+    }
+
+    @EventListener
+    public void on(RoomRatingsSynchronizedEvent event) {
+        Map<Long, RoomRatingDto> ratings = event.getChangedRooms() > 0
+                ? toRatings(event.getRooms())
+                : snapshot.ratings;
+        snapshot = new Snapshot(ratings, event.getSynchronizedAt());
+    }
+
+    @Override
+    public List<RoomRatingDto> getAll() {
+        return new ArrayList<>(snapshot.ratings.values());
+    }
+
+    @Override
+    public Optional<RoomRatingDto> getByRoomId(Long roomId) {
+        return Optional.ofNullable(snapshot.ratings.get(roomId));
+    }
+
+    @Override
+    public List<RoomRatingDto> getByRoomIds(Collection<Long> roomIds) {
+        Map<Long, RoomRatingDto> ratings = snapshot.ratings;
+        return roomIds.stream()
+                .distinct()
+                .map(ratings::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Instant> getSynchronizedAt() {
+        return Optional.ofNullable(snapshot.synchronizedAt);
+    }
+
+    private static Map<Long, RoomRatingDto> toRatings(List<Room> rooms) {
+        return rooms.stream()
+                .collect(Collectors.toMap(Room::getId, room -> new RoomRatingDto(room.getId(), room.getRating()),
+                        (first, second) -> second, TreeMap::new));
+    }
+
+    // Ratings and their timestamp are replaced together.
+    private static class Snapshot {
+
+        private final Map<Long, RoomRatingDto> ratings;
+
+        private final Instant synchronizedAt;
+
+        private Snapshot(Map<Long, RoomRatingDto> ratings, Instant synchronizedAt) {
+            this.ratings = ratings;
+            this.synchronizedAt = synchronizedAt;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.grapeup.hotelreservation.api;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Collects the keys requested within a short window and loads them with a
+ * single batch call. A batch is sent when its window ends or when it
+ * reaches the maximum size, whichever comes first. Keys the batch loader
+ * does not return resolve to null.
+ */
+public class MicroBatcher<K, V> implements AutoCloseable {
+
+    private final Function<Set<K>, Map<K, V>> batchLoader;
+
+    private final Duration window;
+
+    private final int maxBatchSize;
+
+    private final ScheduledExecutorService scheduler;
+
+    private Map<K, CompletableFuture<V>> pending;
+
+    public MicroBatcher(Function<Set<K>, Map<K, V>> batchLoader, Duration window, int maxBatchSize) {
+        this.batchLoader = batchLoader;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        AtomicInteger threads = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "micro-batcher-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public V load(K key) {
+        return await(submit(key));
+    }
+
+    // The keys are submitted while holding the lock the window's flush
+    // needs, so they are not split across batches unless one fills up.
+    public Map<K, V> loadAll(Collection<? extends K> keys) {
+        Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        synchronized (this) {
+            for (K key : keys) {
+                futures.put(key, submit(key));
+            }
+        }
+        Map<K, V> values = new LinkedHashMap<>();
+        futures.forEach((key, future) -> values.put(key, await(future)));
+        return values;
+    }
+
+    public synchronized CompletableFuture<V> submit(K key) {
+        if (pending == null) {
+            Map<K, CompletableFuture<V>> batch = new LinkedHashMap<>();
+            pending = batch;
+            scheduler.schedule(() -> flush(batch), window.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        Map<K, CompletableFuture<V>> batch = pending;
+        CompletableFuture<V> future = batch.computeIfAbsent(key, k -> new CompletableFuture<>());
+        if (batch.size() >= maxBatchSize) {
+            pending = null;
+            scheduler.execute(() -> send(batch));
+        }
+        return future;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void flush(Map<K, CompletableFuture<V>> batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                // Already sent because it reached the maximum size.
+                return;
+            }
+            pending = null;
+        }
+        send(batch);
+    }
+
+    private void send(Map<K, CompletableFuture<V>> batch) {
+        try {
+            Map<K, V> values = batchLoader.apply(batch.keySet());
+            batch.forEach((key, future) -> future.complete(values.get(key)));
+        } catch (RuntimeException | Error e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.grapeup.hotelreservation.api;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Opens after a number of consecutive failures and rejects calls until the
+ * open duration has passed. Then a single trial call is let through; its
+ * outcome closes the breaker or opens it again.
+ */
+public class RatingCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+
+    private final Duration openDuration;
+
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+
+    private int consecutiveFailures;
+
+    private Instant openedAt;
+
+    private boolean trialCallRunning;
+
+    public RatingCircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && !openedAt.plus(openDuration).isAfter(clock.instant())) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !trialCallRunning) {
+            trialCallRunning = true;
+            return true;
+        }
+        return false;
+    }
+
+    // Gives back a permission whose call never reached the remote service.
+    public synchronized void releasePermission() {
+        trialCallRunning = false;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialCallRunning = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialCallRunning = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.instant();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
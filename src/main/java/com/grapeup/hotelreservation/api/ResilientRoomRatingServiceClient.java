@@ -0,0 +1,287 @@
+package com.grapeup.hotelreservation.api;
+
+import com.grapeup.hotelreservation.dto.RoomRatingDto;
+import com.grapeup.hotelreservation.exception.RatingServiceUnavailableException;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Keeps rating-service calls off the request threads. Calls run on a small
+ * pool behind a limit of concurrent calls, which acts as a bulkhead;
+ * callers wait at most the
+ * timeout, and a circuit breaker stops calling a failing service. When a
+ * call cannot be made or fails, the last ratings received are served.
+ * Concurrent lookups of the same room share one call and its outcome.
+ */
+@Slf4j
+@Component(ResilientRoomRatingServiceClient.NAME)
+public class ResilientRoomRatingServiceClient implements RoomRatingServiceClient {
+
+    public static final String NAME = "resilientRoomRatingServiceClient";
+
+    public static final String REMOTE_CLIENT = "remoteRoomRatingServiceClient";
+
+    private static final String ALL_RATINGS = "all";
+
+    private final RoomRatingServiceClient delegate;
+
+    private final RatingCircuitBreaker circuitBreaker;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Duration timeout;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Semaphore callSlots;
+
+    private final Map<Long, RoomRatingDto> lastKnownRatings = new ConcurrentHashMap<>();
+
+    private volatile List<RoomRatingDto> lastKnownAll;
+
+    private final SingleFlight<Long, Optional<RoomRatingDto>> roomLookups = new SingleFlight<>();
+
+    private final SingleFlight<String, List<RoomRatingDto>> allLookups = new SingleFlight<>();
+
+    @Autowired
+    public ResilientRoomRatingServiceClient(@Qualifier(REMOTE_CLIENT) RoomRatingServiceClient delegate,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${reservation.ratings.client.timeout:1s}") Duration timeout,
+                                            @Value("${reservation.ratings.client.max-concurrent-calls:10}") int maxConcurrentCalls,
+                                            @Value("${reservation.ratings.client.failure-threshold:5}") int failureThreshold,
+                                            @Value("${reservation.ratings.client.open-duration:30s}") Duration openDuration) {
+        this(delegate, meterRegistry, timeout, maxConcurrentCalls,
+                new RatingCircuitBreaker(failureThreshold, openDuration, Clock.systemUTC()));
+    }
+
+    ResilientRoomRatingServiceClient(RoomRatingServiceClient delegate, MeterRegistry meterRegistry,
+                                     Duration timeout, int maxConcurrentCalls,
+                                     RatingCircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+        this.circuitBreaker = circuitBreaker;
+        this.callSlots = new Semaphore(maxConcurrentCalls);
+
+        // The slots bound the calls, not the pool: a worker that just
+        // finished a call may not be idle yet when the next call arrives.
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "rating-client-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        meterRegistry.gauge("ratings.circuitbreaker.state", circuitBreaker,
+                breaker -> breaker.getState().ordinal());
+        meterRegistry.gauge("ratings.bulkhead.active.calls", callSlots,
+                slots -> maxConcurrentCalls - slots.availablePermits());
+    }
+
+    @Override
+    public List<RoomRatingDto> getAll() {
+        return allLookups.execute(ALL_RATINGS, () -> call(() -> rememberAll(delegate.getAll()), this::lastKnownAll));
+    }
+
+    @Override
+    public Optional<RoomRatingDto> getByRoomId(Long roomId) {
+        return roomLookups.execute(roomId, () -> call(() -> remember(roomId, findByRoomId(roomId)),
+                () -> lastKnown(roomId)));
+    }
+
+    // Asynchronous calls go through the same circuit breaker and fall back to
+    // the same last-known ratings. They take no call slot: no thread waits
+    // while they are in flight, and the HTTP client enforces the timeout.
+    CompletableFuture<List<RoomRatingDto>> getAllAsync(Supplier<CompletableFuture<List<RoomRatingDto>>> remoteCall) {
+        return callAsync(() -> remoteCall.get().thenApply(this::rememberAll), this::lastKnownAll);
+    }
+
+    CompletableFuture<Optional<RoomRatingDto>> getByRoomIdAsync(Long roomId,
+                                                                Supplier<CompletableFuture<Optional<RoomRatingDto>>> remoteCall) {
+        return callAsync(() -> remoteCall.get().thenApply(rating -> remember(roomId, rating)),
+                () -> lastKnown(roomId));
+    }
+
+    public RatingCircuitBreaker.State getCircuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T call(Callable<T> remoteCall, Supplier<T> fallback) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            record("short-circuited");
+            return fallback.get();
+        }
+
+        if (!callSlots.tryAcquire()) {
+            circuitBreaker.releasePermission();
+            record("rejected");
+            return fallback.get();
+        }
+        // The slot is given back before the result is published, so a caller
+        // that got its answer can call again straight away. A call abandoned
+        // before it started gives the slot back itself.
+        AtomicBoolean started = new AtomicBoolean();
+        Future<T> result = executor.submit(() -> {
+            if (!started.compareAndSet(false, true)) {
+                throw new CancellationException();
+            }
+            try {
+                return remoteCall.call();
+            } finally {
+                callSlots.release();
+            }
+        });
+        Runnable abandon = () -> {
+            result.cancel(true);
+            if (started.compareAndSet(false, true)) {
+                callSlots.release();
+            }
+        };
+
+        try {
+            T value = result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            record("success");
+            return value;
+        } catch (TimeoutException e) {
+            abandon.run();
+            circuitBreaker.onFailure();
+            record("timeout");
+        } catch (ExecutionException e) {
+            if (isClientError(e.getCause())) {
+                circuitBreaker.releasePermission();
+                record("client-error");
+                throw (FeignException) e.getCause();
+            }
+            circuitBreaker.onFailure();
+            record("failure");
+            log.warn("Rating service call failed: {}", e.getCause().toString());
+        } catch (InterruptedException e) {
+            abandon.run();
+            circuitBreaker.releasePermission();
+            Thread.currentThread().interrupt();
+        }
+        return fallback.get();
+    }
+
+    private <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> remoteCall, Supplier<T> fallback) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            record("short-circuited");
+            return fallbackAsync(fallback);
+        }
+
+        CompletableFuture<T> result;
+        try {
+            result = remoteCall.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.handle((value, failure) -> {
+            if (failure == null) {
+                circuitBreaker.onSuccess();
+                record("success");
+                return CompletableFuture.completedFuture(value);
+            }
+            circuitBreaker.onFailure();
+            record("failure");
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure;
+            log.warn("Rating service call failed: {}", cause.toString());
+            return fallbackAsync(fallback);
+        }).thenCompose(Function.identity());
+    }
+
+    // Feign reports a room rating-service does not know as 404.
+    private Optional<RoomRatingDto> findByRoomId(Long roomId) {
+        try {
+            return delegate.getByRoomId(roomId);
+        } catch (FeignException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    // A 4xx answer means the service is up and rejected this request, so it
+    // neither trips the breaker nor is hidden behind the last-known ratings.
+    private static boolean isClientError(Throwable failure) {
+        return failure instanceof FeignException
+                && ((FeignException) failure).status() >= 400 && ((FeignException) failure).status() < 500;
+    }
+
+    private static <T> CompletableFuture<T> fallbackAsync(Supplier<T> fallback) {
+        try {
+            return CompletableFuture.completedFuture(fallback.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private List<RoomRatingDto> rememberAll(List<RoomRatingDto> all) {
+        all.forEach(rating -> lastKnownRatings.put(rating.getId(), rating));
+        lastKnownAll = all;
+        return all;
+    }
+
+    private Optional<RoomRatingDto> remember(Long roomId, Optional<RoomRatingDto> rating) {
+        if (rating.isPresent()) {
+            lastKnownRatings.put(roomId, rating.get());
+        } else {
+            lastKnownRatings.remove(roomId);
+        }
+        return rating;
+    }
+
+    private List<RoomRatingDto> lastKnownAll() {
+        if (lastKnownAll == null) {
+            throw new RatingServiceUnavailableException("No ratings received yet");
+        }
+        return lastKnownAll;
+    }
+
+    private Optional<RoomRatingDto> lastKnown(Long roomId) {
+        RoomRatingDto rating = lastKnownRatings.get(roomId);
+        if (rating == null && lastKnownAll == null) {
+            throw new RatingServiceUnavailableException("No rating received yet for room " + roomId);
+        }
+        return Optional.ofNullable(rating);
+    }
+
+    private void record(String outcome) {
+        meterRegistry.counter("ratings.calls", "outcome", outcome).increment();
+    }
+}
@@ -5,10 +5,16 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
-@FeignClient(name = "rating-service")
+@FeignClient(name = "rating-service", qualifier = ResilientRoomRatingServiceClient.REMOTE_CLIENT,
+        primary = false)
 public interface RoomRatingServiceClient {
 
     @GetMapping("/ratings")
@@ -16,4 +22,19 @@ public interface RoomRatingServiceClient {
 
     @GetMapping("/ratings/{roomId}")
     Optional<RoomRatingDto> getByRoomId(@PathVariable("roomId") Long roomId);
+
+    // rating-service has no batch endpoint, so the ratings are taken from
+    // the full list.
+    default List<RoomRatingDto> getByRoomIds(Collection<Long> roomIds) {
+        Set<Long> wanted = new HashSet<>(roomIds);
+        return getAll().stream()
+                .filter(rating -> wanted.contains(rating.getId()))
+                .collect(Collectors.toList());
+    }
+
+    // Set by clients serving a local copy: when it was last taken from
+    // rating-service.
+    default Optional<Instant> getSynchronizedAt() {
+        return Optional.empty();
+    }
 }
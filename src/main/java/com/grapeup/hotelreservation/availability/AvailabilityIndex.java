@@ -0,0 +1,20 @@
+package com.grapeup.hotelreservation.availability;
+
+import com.grapeup.hotelreservation.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface AvailabilityIndex {
+
+    void addRoom(Long roomId, RoomType roomType);
+    void book(Long reservationId, Long roomId, LocalDate startDate, LocalDate endDate);
+    void release(Long reservationId);
+    boolean isAvailable(Long roomId, LocalDate startDate, LocalDate endDate, Long ignoredReservationId);
+    List<Long> findAvailableRooms(RoomType roomType, LocalDate startDate, LocalDate endDate);
+    Optional<Long> findFirstAvailableRoom(RoomType roomType, LocalDate startDate, LocalDate endDate);
+    Optional<LocalDate> findLastBookedDayBefore(Long roomId, LocalDate date);
+    Optional<LocalDate> findFirstBookedDayAfter(Long roomId, LocalDate date);
+
+}
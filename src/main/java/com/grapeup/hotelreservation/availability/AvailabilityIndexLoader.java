@@ -0,0 +1,62 @@
+package com.grapeup.hotelreservation.availability;
+
+import com.grapeup.hotelreservation.repository.ReservationRepository;
+import com.grapeup.hotelreservation.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+
+@Component
+public class AvailabilityIndexLoader {
+
+    private AvailabilityIndex availabilityIndex;
+
+    private RoomRepository roomRepository;
+
+    private ReservationRepository reservationRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private boolean loadReservations;
+
+    public AvailabilityIndexLoader(AvailabilityIndex availabilityIndex,
+                                   RoomRepository roomRepository,
+                                   ReservationRepository reservationRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${reservation.persistence.mode:jpa}") String persistenceMode) {
+        this.availabilityIndex = availabilityIndex;
+        this.roomRepository = roomRepository;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = transactionTemplate;
+        // The journal store books its own reservations when it recovers.
+        this.loadReservations = !"journal".equals(persistenceMode);
+    }
+
+    // Loaded in a read-write transaction, so a lagging replica never seeds
+    // the index.
+    @PostConstruct
+    public void load() {
+        transactionTemplate.executeWithoutResult(status -> loadIndex());
+    }
+
+    // Rooms are not created through this service; they are inserted into the
+    // database directly, followed by a room cache eviction that calls this.
+    public void addRooms() {
+        transactionTemplate.executeWithoutResult(status -> roomRepository.findAll()
+                .forEach(room -> availabilityIndex.addRoom(room.getId(), room.getRoomType())));
+    }
+
+    private void loadIndex() {
+        addRooms();
+        if (!loadReservations) {
+            return;
+        }
+        reservationRepository.findAllDtos().stream()
+                .filter(reservation -> reservation.getRoomId() != null)
+                .forEach(reservation -> availabilityIndex.book(reservation.getId(),
+                        reservation.getRoomId(), reservation.getStartDate(),
+                        reservation.getEndDate()));
+    }
+}
@@ -0,0 +1,213 @@
+package com.grapeup.hotelreservation.availability;
+
+import com.grapeup.hotelreservation.model.RoomType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "reservation.availability.engine", havingValue = "bitmap")
+public class BitmapAvailabilityIndex implements AvailabilityIndex {
+
+    // Day numbers count from here, so historic stays still map to bits.
+    private static final LocalDate FIRST_DAY = LocalDate.of(1900, 1, 1);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<RoomType, SortedSet<Long>> roomsByType = new EnumMap<>(RoomType.class);
+
+    // One bit per booked day, indexed by days since FIRST_DAY.
+    private final Map<Long, BitSet> calendars = new HashMap<>();
+
+    // Days claimed by more than one stay of a room. Only loaded data can
+    // overlap, and releasing such a stay must not free the other's days.
+    private final Map<Long, BitSet> sharedDays = new HashMap<>();
+
+    private final Map<Long, Stay> stays = new HashMap<>();
+
+    @Override
+    public void addRoom(Long roomId, RoomType roomType) {
+        lock.writeLock().lock();
+        try {
+            roomsByType.values().forEach(rooms -> rooms.remove(roomId));
+            roomsByType.computeIfAbsent(roomType, type -> new TreeSet<>()).add(roomId);
+            calendars.computeIfAbsent(roomId, id -> new BitSet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void book(Long reservationId, Long roomId, LocalDate startDate, LocalDate endDate) {
+        lock.writeLock().lock();
+        try {
+            removeStay(reservationId);
+            Stay stay = new Stay(roomId, day(startDate), day(endDate));
+            if (stay.firstDay < 0) {
+                throw new IllegalArgumentException("Stays starting before " + FIRST_DAY + " cannot be booked");
+            }
+            mark(stay);
+            stays.put(reservationId, stay);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void release(Long reservationId) {
+        lock.writeLock().lock();
+        try {
+            removeStay(reservationId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isAvailable(Long roomId, LocalDate startDate, LocalDate endDate, Long ignoredReservationId) {
+        lock.readLock().lock();
+        try {
+            Stay ignored = stays.get(ignoredReservationId);
+            if (ignored != null && !ignored.roomId.equals(roomId)) {
+                ignored = null;
+            }
+            return isFree(roomId, day(startDate), day(endDate), ignored);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> findAvailableRooms(RoomType roomType, LocalDate startDate, LocalDate endDate) {
+        int firstDay = day(startDate);
+        int lastDay = day(endDate);
+
+        lock.readLock().lock();
+        try {
+            return roomsByType.getOrDefault(roomType, Collections.emptySortedSet()).stream()
+                    .filter(roomId -> isFree(roomId, firstDay, lastDay, null))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Long> findFirstAvailableRoom(RoomType roomType, LocalDate startDate, LocalDate endDate) {
+        int firstDay = day(startDate);
+        int lastDay = day(endDate);
+
+        lock.readLock().lock();
+        try {
+            return roomsByType.getOrDefault(roomType, Collections.emptySortedSet()).stream()
+                    .filter(roomId -> isFree(roomId, firstDay, lastDay, null))
+                    .findFirst();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<LocalDate> findLastBookedDayBefore(Long roomId, LocalDate date) {
+        lock.readLock().lock();
+        try {
+            BitSet calendar = calendars.get(roomId);
+            return calendar == null ? Optional.empty() : date(calendar.previousSetBit(Math.max(day(date) - 1, -1)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<LocalDate> findFirstBookedDayAfter(Long roomId, LocalDate date) {
+        lock.readLock().lock();
+        try {
+            BitSet calendar = calendars.get(roomId);
+            return calendar == null ? Optional.empty() : date(calendar.nextSetBit(Math.max(day(date) + 1, 0)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void mark(Stay stay) {
+        BitSet calendar = calendars.computeIfAbsent(stay.roomId, id -> new BitSet());
+        int bookedDay = calendar.nextSetBit(stay.firstDay);
+        while (bookedDay != -1 && bookedDay <= stay.lastDay) {
+            sharedDays.computeIfAbsent(stay.roomId, id -> new BitSet()).set(bookedDay);
+            bookedDay = calendar.nextSetBit(bookedDay + 1);
+        }
+        calendar.set(stay.firstDay, stay.lastDay + 1);
+    }
+
+    private void removeStay(Long reservationId) {
+        Stay stay = stays.remove(reservationId);
+        if (stay == null) {
+            return;
+        }
+        BitSet shared = sharedDays.get(stay.roomId);
+        int sharedDay = shared == null ? -1 : shared.nextSetBit(stay.firstDay);
+        if (sharedDay == -1 || sharedDay > stay.lastDay) {
+            calendars.get(stay.roomId).clear(stay.firstDay, stay.lastDay + 1);
+            return;
+        }
+        // Some of these days belong to another stay too, so the room's
+        // calendar is rebuilt from the stays that are left.
+        calendars.get(stay.roomId).clear();
+        sharedDays.remove(stay.roomId);
+        stays.values().stream()
+                .filter(other -> other.roomId.equals(stay.roomId))
+                .forEach(this::mark);
+    }
+
+    private boolean isFree(Long roomId, int firstDay, int lastDay, Stay ignored) {
+        BitSet calendar = calendars.get(roomId);
+        if (calendar == null) {
+            return true;
+        }
+        BitSet shared = sharedDays.getOrDefault(roomId, new BitSet());
+        int bookedDay = calendar.nextSetBit(Math.max(firstDay, 0));
+        while (bookedDay != -1 && bookedDay <= lastDay) {
+            if (ignored == null || bookedDay < ignored.firstDay || bookedDay > ignored.lastDay
+                    || shared.get(bookedDay)) {
+                return false;
+            }
+            bookedDay = calendar.nextSetBit(bookedDay + 1);
+        }
+        return true;
+    }
+
+    private static int day(LocalDate date) {
+        return Math.toIntExact(ChronoUnit.DAYS.between(FIRST_DAY, date));
+    }
+
+    private static Optional<LocalDate> date(int day) {
+        return day < 0 ? Optional.empty() : Optional.of(FIRST_DAY.plusDays(day));
+    }
+
+    private static final class Stay {
+
+        private final Long roomId;
+        private final int firstDay;
+        private final int lastDay;
+
+        private Stay(Long roomId, int firstDay, int lastDay) {
+            this.roomId = roomId;
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+        }
+    }
+}
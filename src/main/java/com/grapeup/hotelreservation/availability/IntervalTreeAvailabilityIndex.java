@@ -0,0 +1,197 @@
+package com.grapeup.hotelreservation.availability;
+
+import com.grapeup.hotelreservation.model.RoomType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnExpression("'${reservation.availability.engine:stream}' != 'bitmap'")
+public class IntervalTreeAvailabilityIndex implements AvailabilityIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<RoomType, SortedSet<Long>> roomsByType = new EnumMap<>(RoomType.class);
+
+    private final Map<Long, NavigableMap<LocalDate, Stay>> calendars = new HashMap<>();
+
+    // Stays that overlap one already in their room's calendar. Only loaded
+    // data can overlap; keeping them aside keeps the calendar disjoint.
+    private final Map<Long, List<Stay>> overlappingStays = new HashMap<>();
+
+    private final Map<Long, Stay> stays = new HashMap<>();
+
+    @Override
+    public void addRoom(Long roomId, RoomType roomType) {
+        lock.writeLock().lock();
+        try {
+            roomsByType.values().forEach(rooms -> rooms.remove(roomId));
+            roomsByType.computeIfAbsent(roomType, type -> new TreeSet<>()).add(roomId);
+            calendars.computeIfAbsent(roomId, id -> new TreeMap<>());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void book(Long reservationId, Long roomId, LocalDate startDate, LocalDate endDate) {
+        lock.writeLock().lock();
+        try {
+            removeStay(reservationId);
+            Stay stay = new Stay(reservationId, roomId, startDate, endDate);
+            NavigableMap<LocalDate, Stay> calendar = calendars.computeIfAbsent(roomId, id -> new TreeMap<>());
+            if (isFree(calendar, startDate, endDate, null)) {
+                calendar.put(startDate, stay);
+            } else {
+                overlappingStays.computeIfAbsent(roomId, id -> new ArrayList<>()).add(stay);
+            }
+            stays.put(reservationId, stay);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void release(Long reservationId) {
+        lock.writeLock().lock();
+        try {
+            removeStay(reservationId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isAvailable(Long roomId, LocalDate startDate, LocalDate endDate, Long ignoredReservationId) {
+        lock.readLock().lock();
+        try {
+            return isFree(roomId, startDate, endDate, ignoredReservationId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> findAvailableRooms(RoomType roomType, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            return roomsByType.getOrDefault(roomType, Collections.emptySortedSet()).stream()
+                    .filter(roomId -> isFree(roomId, startDate, endDate, null))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Each room is checked in logarithmic time, but the rooms of a type are
+    // walked in id order; the walk stops at the first free one.
+    @Override
+    public Optional<Long> findFirstAvailableRoom(RoomType roomType, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            return roomsByType.getOrDefault(roomType, Collections.emptySortedSet()).stream()
+                    .filter(roomId -> isFree(roomId, startDate, endDate, null))
+                    .findFirst();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<LocalDate> findLastBookedDayBefore(Long roomId, LocalDate date) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<LocalDate, Stay> calendar = calendars.getOrDefault(roomId, Collections.emptyNavigableMap());
+            return Stream.concat(Optional.ofNullable(calendar.lowerEntry(date)).map(Map.Entry::getValue).stream(),
+                            overlappingStays.getOrDefault(roomId, List.of()).stream()
+                                    .filter(stay -> stay.startDate.isBefore(date)))
+                    .map(stay -> stay.endDate.isBefore(date) ? stay.endDate : date.minusDays(1))
+                    .max(Comparator.naturalOrder());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<LocalDate> findFirstBookedDayAfter(Long roomId, LocalDate date) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<LocalDate, Stay> calendar = calendars.getOrDefault(roomId, Collections.emptyNavigableMap());
+            Map.Entry<LocalDate, Stay> covering = calendar.floorEntry(date);
+            if (covering != null && covering.getValue().endDate.isAfter(date)) {
+                return Optional.of(date.plusDays(1));
+            }
+            return Stream.concat(Optional.ofNullable(calendar.higherKey(date)).stream(),
+                            overlappingStays.getOrDefault(roomId, List.of()).stream()
+                                    .filter(stay -> stay.endDate.isAfter(date))
+                                    .map(stay -> stay.startDate.isAfter(date) ? stay.startDate : date.plusDays(1)))
+                    .min(Comparator.naturalOrder());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeStay(Long reservationId) {
+        Stay stay = stays.remove(reservationId);
+        if (stay == null || calendars.get(stay.roomId).remove(stay.startDate, stay)) {
+            return;
+        }
+        overlappingStays.computeIfPresent(stay.roomId, (roomId, overlapping) -> {
+            overlapping.remove(stay);
+            return overlapping.isEmpty() ? null : overlapping;
+        });
+    }
+
+    private boolean isFree(Long roomId, LocalDate startDate, LocalDate endDate, Long ignoredReservationId) {
+        return isFree(calendars.get(roomId), startDate, endDate, ignoredReservationId)
+                && overlappingStays.getOrDefault(roomId, List.of()).stream()
+                        .noneMatch(stay -> !stay.reservationId.equals(ignoredReservationId)
+                                && !stay.startDate.isAfter(endDate) && !stay.endDate.isBefore(startDate));
+    }
+
+    private static boolean isFree(NavigableMap<LocalDate, Stay> calendar, LocalDate startDate,
+                                  LocalDate endDate, Long ignoredReservationId) {
+        if (calendar == null) {
+            return true;
+        }
+        // Stays in a calendar never overlap, so only the latest stay starting
+        // on or before the requested end can reach into the requested range.
+        Map.Entry<LocalDate, Stay> latest = calendar.floorEntry(endDate);
+        while (latest != null && latest.getValue().reservationId.equals(ignoredReservationId)) {
+            latest = calendar.lowerEntry(latest.getKey());
+        }
+        return latest == null || latest.getValue().endDate.isBefore(startDate);
+    }
+
+    private static final class Stay {
+
+        private final Long reservationId;
+        private final Long roomId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+
+        private Stay(Long reservationId, Long roomId, LocalDate startDate, LocalDate endDate) {
+            this.reservationId = reservationId;
+            this.roomId = roomId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+    }
+}
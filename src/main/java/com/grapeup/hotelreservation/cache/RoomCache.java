@@ -0,0 +1,68 @@
+package com.grapeup.hotelreservation.cache;
+
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.repository.RoomRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Component
+public class RoomCache {
+
+    private SessionFactory sessionFactory;
+
+    public RoomCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    // Hibernate invalidates both regions when rooms change through JPA;
+    // rooms added or removed directly in the database need this call.
+    public void evict() {
+        sessionFactory.getCache().evictEntityData(Room.class);
+        sessionFactory.getCache().evictQueryRegion(RoomRepository.CAPACITY_QUERY_CACHE_REGION);
+    }
+
+    public void evict(Long roomId) {
+        sessionFactory.getCache().evictEntityData(Room.class, roomId);
+        sessionFactory.getCache().evictQueryRegion(RoomRepository.CAPACITY_QUERY_CACHE_REGION);
+    }
+
+    public Map<String, Object> statistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        regions.put(Room.CACHE_REGION,
+                toMap(() -> statistics.getDomainDataRegionStatistics(Room.CACHE_REGION)));
+        regions.put(RoomRepository.CAPACITY_QUERY_CACHE_REGION,
+                toMap(() -> statistics.getQueryRegionStatistics(RoomRepository.CAPACITY_QUERY_CACHE_REGION)));
+        return regions;
+    }
+
+    private static Map<String, Object> toMap(Supplier<CacheRegionStatistics> statisticsSupplier) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        CacheRegionStatistics regionStatistics;
+        try {
+            regionStatistics = statisticsSupplier.get();
+        } catch (IllegalArgumentException e) {
+            // Hibernate rejects regions that do not exist when caching is off.
+            regionStatistics = null;
+        }
+        if (regionStatistics == null) {
+            values.put("enabled", false);
+            return values;
+        }
+        long hits = regionStatistics.getHitCount();
+        long misses = regionStatistics.getMissCount();
+        values.put("enabled", true);
+        values.put("hits", hits);
+        values.put("misses", misses);
+        values.put("puts", regionStatistics.getPutCount());
+        values.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return values;
+    }
+}
@@ -0,0 +1,41 @@
+package com.grapeup.hotelreservation.cache;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+// Statistics stay readable, but evicting the room cache requires the admin
+// token. Without a configured token every eviction is refused.
+public class RoomCacheAdminFilter extends OncePerRequestFilter {
+
+    public static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final byte[] adminToken;
+
+    public RoomCacheAdminFilter(String adminToken) {
+        this.adminToken = adminToken.isEmpty() ? null : adminToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (HttpMethod.GET.matches(request.getMethod()) || isAdmin(request.getHeader(ADMIN_TOKEN_HEADER))) {
+            filterChain.doFilter(request, response);
+        } else {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+        }
+    }
+
+    private boolean isAdmin(String token) {
+        return adminToken != null && token != null
+                && MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+}
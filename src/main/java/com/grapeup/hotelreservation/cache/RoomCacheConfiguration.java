@@ -0,0 +1,44 @@
+package com.grapeup.hotelreservation.cache;
+
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+@Configuration
+public class RoomCacheConfiguration {
+
+    // The provider's default cache manager is shared by the whole JVM, so
+    // closing one application context would close the caches of every other
+    // one still running. Each context gets a manager of its own.
+    @Bean(destroyMethod = "close")
+    public CacheManager roomCacheManager() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:hotel-reservation:" + UUID.randomUUID()),
+                new DefaultConfiguration(provider.getDefaultClassLoader()));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer roomCacheManagerCustomizer(CacheManager roomCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, roomCacheManager);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RoomCacheAdminFilter> roomCacheAdminFilter(
+            @Value("${reservation.cache.admin-token:}") String adminToken) {
+        FilterRegistrationBean<RoomCacheAdminFilter> registration =
+                new FilterRegistrationBean<>(new RoomCacheAdminFilter(adminToken));
+        registration.addUrlPatterns("/actuator/roomcache", "/actuator/roomcache/*");
+        return registration;
+    }
+}
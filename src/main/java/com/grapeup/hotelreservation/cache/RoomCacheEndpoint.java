@@ -0,0 +1,46 @@
+package com.grapeup.hotelreservation.cache;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndexLoader;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import com.grapeup.hotelreservation.availability.AvailabilityIndexLoader;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import com.grapeup.hotelreservation.availability.AvailabilityIndexLoader;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import com.grapeup.hotelreservation.availability.AvailabilityIndexLoader;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "roomcache")
+public class RoomCacheEndpoint {
+
+    private RoomCache roomCache;
+
+    private AvailabilityIndexLoader availabilityIndexLoader;
+
+    public RoomCacheEndpoint(RoomCache roomCache, AvailabilityIndexLoader availabilityIndexLoader) {
+        this.roomCache = roomCache;
+        this.availabilityIndexLoader = availabilityIndexLoader;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        return roomCache.statistics();
+    }
+
+    // Evictions follow direct changes to the room table, so the rooms are
+    // also registered again with the availability index.
+    @DeleteOperation
+    public void evict() {
+        roomCache.evict();
+        availabilityIndexLoader.addRooms();
+    }
+
+    @DeleteOperation
+    public void evictRoom(@Selector Long roomId) {
+        roomCache.evict(roomId);
+        availabilityIndexLoader.addRooms();
+    }
+}
@@ -0,0 +1,50 @@
+package com.grapeup.hotelreservation.controller;
+
+import com.grapeup.hotelreservation.dto.AvailabilityDto;
+import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.service.AvailabilityService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/availability")
+public class AvailabilityController {
+
+    private final AvailabilityService availabilityService;
+
+    public AvailabilityController(AvailabilityService availabilityService) {
+        this.availabilityService = availabilityService;
+    }
+
+    @GetMapping()
+    public AvailabilityDto getAvailability(
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "people") int people) {
+
+        Map<RoomType, List<Long>> availableRooms = availabilityService.findAvailableRooms(from, to, people);
+
+        Map<RoomType, Integer> roomsPerType = new EnumMap<>(RoomType.class);
+        availableRooms.forEach((roomType, roomIds) -> roomsPerType.put(roomType, roomIds.size()));
+
+        return AvailabilityDto.builder()
+                .startDate(from)
+                .endDate(to)
+                .numberOfPeople(people)
+                .roomIds(availableRooms.values().stream()
+                        .flatMap(Collection::stream)
+                        .collect(Collectors.toList()))
+                .roomsPerType(roomsPerType)
+                .build();
+    }
+}
@@ -1,17 +1,23 @@
 package com.grapeup.hotelreservation.controller;
 
+import com.grapeup.hotelreservation.api.AsyncRoomRatingServiceClient;
 import com.grapeup.hotelreservation.api.RoomRatingServiceClient;
 import com.grapeup.hotelreservation.dto.RoomRatingDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/ratings")
@@ -19,31 +25,83 @@ public class RatingController {
 
     private static final String RATINGS_MAPPING = "/ratings/";
 
+    public static final String SYNCHRONIZED_AT_HEADER = "X-Ratings-Synchronized-At";
+
     private RoomRatingServiceClient roomRatingServiceClient;
 
-    public RatingController(RoomRatingServiceClient roomRatingServiceClient) {
+    private AsyncRoomRatingServiceClient asyncRoomRatingServiceClient;
+
+    private boolean localRatings;
+
+    public RatingController(RoomRatingServiceClient roomRatingServiceClient,
+                            AsyncRoomRatingServiceClient asyncRoomRatingServiceClient,
+                            @Value("${reservation.ratings.source:remote}") String ratingsSource) {
         this.roomRatingServiceClient = roomRatingServiceClient;
+        this.asyncRoomRatingServiceClient = asyncRoomRatingServiceClient;
+        this.localRatings = "local".equals(ratingsSource);
     }
 
     @GetMapping()
-    public List<RoomRatingDto> getRatings() {
-        return roomRatingServiceClient.getAll();
+    public ResponseEntity<List<RoomRatingDto>> getRatings(
+            @RequestParam(name = "roomIds", required = false) List<Long> roomIds) {
+        HttpHeaders headers = freshnessHeaders();
+        List<RoomRatingDto> ratings = roomIds != null
+                ? roomRatingServiceClient.getByRoomIds(roomIds)
+                : roomRatingServiceClient.getAll();
+        return ResponseEntity.ok().headers(headers).body(ratings);
+    }
+
+    // The servlet thread is released while rating-service is called. With
+    // local ratings there is nothing to wait for, so the local copy answers.
+    @GetMapping("/async")
+    public CompletableFuture<ResponseEntity<List<RoomRatingDto>>> getRatingsAsync() {
+        if (localRatings) {
+            return CompletableFuture.completedFuture(getRatings(null));
+        }
+        HttpHeaders headers = freshnessHeaders();
+        return asyncRoomRatingServiceClient.getAll()
+                .thenApply(ratings -> ResponseEntity.ok().headers(headers).body(ratings));
+    }
+
+    @GetMapping("/async/{roomId}")
+    public CompletableFuture<ResponseEntity<?>> getRoomRatingAsync(@PathVariable Long roomId) {
+        if (localRatings) {
+            return CompletableFuture.completedFuture(getRoomRating(roomId));
+        }
+        HttpHeaders headers = freshnessHeaders();
+        return asyncRoomRatingServiceClient.getByRoomId(roomId)
+                .thenApply(rating -> toResponse(rating, headers));
     }
 
     @GetMapping("/{roomId}")
     public ResponseEntity<?> getRoomRating(@PathVariable Long roomId) {
-        return roomRatingServiceClient.getByRoomId(roomId)
+        HttpHeaders headers = freshnessHeaders();
+        return toResponse(roomRatingServiceClient.getByRoomId(roomId), headers);
+    }
+
+    // Read before the ratings, so a synchronization finishing in between can
+    // only make the header older than the body, never newer.
+    private HttpHeaders freshnessHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        roomRatingServiceClient.getSynchronizedAt()
+                .ifPresent(synchronizedAt -> headers.set(SYNCHRONIZED_AT_HEADER, synchronizedAt.toString()));
+        return headers;
+    }
+
+    private ResponseEntity<?> toResponse(Optional<RoomRatingDto> rating, HttpHeaders headers) {
+        return rating
                 .map(ratingDto -> {
                     try {
                         return ResponseEntity
                                 .ok()
+                                .headers(headers)
                                 .location(new URI(RATINGS_MAPPING + ratingDto.getId()))
                                 .body(ratingDto);
                     } catch (URISyntaxException e ) {
                         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
                     }
                 })
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().headers(headers).build());
     }
 
 }
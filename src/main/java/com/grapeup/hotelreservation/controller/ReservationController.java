@@ -1,10 +1,18 @@
 package com.grapeup.hotelreservation.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.grapeup.hotelreservation.converter.ReservationConverter;
+import com.grapeup.hotelreservation.dto.BatchReservationResultDto;
 import com.grapeup.hotelreservation.dto.ReservationDto;
+import com.grapeup.hotelreservation.exception.IncorrectNumberOfPeopleException;
 import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.readmodel.ReservationReadModel;
 import com.grapeup.hotelreservation.service.ReservationService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,10 +23,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -28,34 +45,106 @@ import java.util.stream.Collectors;
 public class ReservationController {
 
     private static final String RESERVATIONS_MAPPING = "/reservations/";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
     private final ReservationService reservationService;
+    private final ReservationReadModel readModel;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService, ReservationReadModel readModel,
+                                 ObjectMapper objectMapper, Validator validator) {
         this.reservationService = reservationService;
+        this.readModel = readModel;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
 
     @GetMapping()
-    public List<ReservationDto> getReservations(@RequestParam(name="roomNumber", required = false) Long roomId) {
+    public ResponseEntity<List<ReservationDto>> getReservations(
+            @RequestParam(name="roomNumber", required = false) Long roomId,
+            @RequestParam(name="after", required = false) Long after,
+            @RequestParam(name="limit", required = false) Integer limit,
+            @RequestParam(name="username", required = false) String username,
+            @RequestParam(name="from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name="to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (username != null || from != null || to != null) {
+            return findFiltered(roomId, username, from, to);
+        }
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(roomId != null
+                    ? readModel.findForRoom(roomId)
+                    : readModel.findAll());
+        }
+
+        long afterId = after != null ? after : 0L;
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+        List<ReservationDto> page = roomId != null
+                ? readModel.findForRoomAfter(roomId, afterId, pageSize)
+                : readModel.findAfter(afterId, pageSize);
+
+        if (page.size() < pageSize) {
+            return ResponseEntity.ok(page);
+        }
+        UriComponentsBuilder next = UriComponentsBuilder.fromPath("/reservations")
+                .queryParam("after", page.get(page.size() - 1).getId())
+                .queryParam("limit", pageSize);
         if (roomId != null) {
-            return reservationService.findForRoom(roomId).stream()
-                    .map(ReservationConverter::toDto)
-                    .collect(Collectors.toList());
+            next.queryParam("roomNumber", roomId);
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next.toUriString() + ">; rel=\"next\"")
+                .body(page);
+    }
+
+    // Filtered lookups return a handful of rows, so they are not paged.
+    // Like every other read here they are served from the read model. from
+    // and to select reservations starting in that range.
+    private ResponseEntity<List<ReservationDto>> findFiltered(Long roomId, String username,
+                                                              LocalDate from, LocalDate to) {
+        if ((from == null) != (to == null)) {
+            return ResponseEntity.badRequest().build();
         }
-        return reservationService.findAll().stream()
-                .map(ReservationConverter::toDto)
-                .collect(Collectors.toList());
+        List<ReservationDto> found = from != null
+                ? readModel.findStartingBetween(username, from, to)
+                : readModel.findForUsername(username);
+        return ResponseEntity.ok(roomId == null ? found : found.stream()
+                .filter(reservation -> roomId.equals(reservation.getRoomId()))
+                .collect(Collectors.toList()));
+    }
+
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(name="roomNumber", required = false) Long roomId) {
+        StreamingResponseBody body = out -> {
+            try {
+                readModel.forEach(roomId, reservation -> writeLine(out, reservation));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getReservation(@PathVariable Long id) {
 
-        return reservationService.findById(id)
+        // Archived reservations are no longer in the read model.
+        Optional<ReservationDto> found = readModel.findById(id);
+        if (found.isEmpty()) {
+            found = reservationService.findByIdIncludingArchived(id).map(ReservationConverter::toDto);
+        }
+        return found
                 .map(reservation -> {
                     try {
                         return ResponseEntity
                                 .ok()
                                 .location(new URI(RESERVATIONS_MAPPING + reservation.getId()))
-                                .body(ReservationConverter.toDto(reservation));
+                                .body(reservation);
                     } catch (URISyntaxException e ) {
                         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
                     }
@@ -75,6 +164,44 @@ public class ReservationController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchReservationResultDto>> createReservations(
+            @RequestBody List<ReservationDto> reservations) {
+        if (reservations.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<BatchReservationResultDto> results = new ArrayList<>(reservations.size());
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<Reservation> accepted = new ArrayList<>();
+        for (int i = 0; i < reservations.size(); i++) {
+            List<String> errors = validate(reservations.get(i));
+            if (errors.isEmpty()) {
+                acceptedIndexes.add(i);
+                accepted.add(ReservationConverter.toEntity(reservations.get(i)));
+                results.add(null);
+            } else {
+                results.add(BatchReservationResultDto.builder().index(i)
+                        .status(HttpStatus.BAD_REQUEST).errors(errors).build());
+            }
+        }
+
+        List<Optional<Reservation>> saved = accepted.isEmpty()
+                ? List.of()
+                : reservationService.saveAll(accepted);
+        for (int i = 0; i < saved.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results.set(index, saved.get(i)
+                    .map(reservation -> BatchReservationResultDto.builder().index(index)
+                            .status(HttpStatus.CREATED)
+                            .reservation(ReservationConverter.toDto(reservation)).build())
+                    .orElseGet(() -> BatchReservationResultDto.builder().index(index)
+                            .status(HttpStatus.NOT_FOUND)
+                            .errors(List.of("No rooms available")).build()));
+        }
+        return ResponseEntity.ok(results);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateReservation(@RequestBody @Valid ReservationDto reservation,
                                            @PathVariable Long id) {
@@ -118,4 +245,29 @@ public class ReservationController {
         reservationService.delete(id);
         return ResponseEntity.ok().build();
     }
+
+    private List<String> validate(ReservationDto reservation) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<ReservationDto> violation : validator.validate(reservation)) {
+            String field = violation.getPropertyPath().toString();
+            errors.add(field.isEmpty() ? violation.getMessage() : field + ": " + violation.getMessage());
+        }
+        if (errors.isEmpty()) {
+            try {
+                RoomType.getFittingSize(reservation.getNumberOfPeople());
+            } catch (IncorrectNumberOfPeopleException e) {
+                errors.add("numberOfPeople: " + e.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    private void writeLine(OutputStream out, ReservationDto reservation) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(reservation));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
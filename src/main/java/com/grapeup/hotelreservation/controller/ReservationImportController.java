@@ -0,0 +1,44 @@
+package com.grapeup.hotelreservation.controller;
+
+import com.grapeup.hotelreservation.dto.ReservationImportDto;
+import com.grapeup.hotelreservation.service.ReservationImporter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/reservations/import")
+public class ReservationImportController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final ReservationImporter reservationImporter;
+
+    public ReservationImportController(ReservationImporter reservationImporter) {
+        this.reservationImporter = reservationImporter;
+    }
+
+    // Posting the same file with the same importId resumes an interrupted import.
+    @PostMapping(consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<ReservationImportDto> importReservations(
+            @RequestParam(name = "importId", required = false) String importId,
+            Reader csv) throws IOException {
+        String id = importId != null ? importId : UUID.randomUUID().toString();
+        return ResponseEntity.ok(reservationImporter.importCsv(id, csv));
+    }
+
+    @GetMapping("/{importId}")
+    public ResponseEntity<ReservationImportDto> getImport(@PathVariable String importId) {
+        return reservationImporter.findImport(importId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,26 @@
+package com.grapeup.hotelreservation.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+public class ClientContextFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        ClientContext.setClientId(clientId != null ? clientId : request.getRemoteAddr());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ClientContext.clear();
+        }
+    }
+}
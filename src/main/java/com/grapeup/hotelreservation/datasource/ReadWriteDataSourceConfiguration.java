@@ -0,0 +1,63 @@
+package com.grapeup.hotelreservation.datasource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "reservation.datasource.routing.enabled", havingValue = "true")
+public class ReadWriteDataSourceConfiguration {
+
+    private static final String PRIMARY_PREFIX = "reservation.datasource.primary";
+    private static final String REPLICA_PREFIX = "reservation.datasource.replica";
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${reservation.datasource.routing.max-lag:2s}") Duration maxLag) {
+        return new ReadYourWritesTracker(maxLag, Clock.systemUTC());
+    }
+
+    // The lazy proxy fetches the real connection on the first statement,
+    // when the transaction's read-only flag is already set.
+    @Bean
+    public DataSource dataSource(Environment environment, ReadYourWritesTracker readYourWritesTracker) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(
+                buildDataSource(environment, PRIMARY_PREFIX),
+                buildDataSource(environment, REPLICA_PREFIX),
+                readYourWritesTracker);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // Hibernate would otherwise keep the first connection for the whole
+    // request, so later transactions could not be routed differently.
+    @Bean
+    public HibernatePropertiesCustomizer connectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ClientContextFilter clientContextFilter() {
+        return new ClientContextFilter();
+    }
+
+    private static DataSource buildDataSource(Environment environment, String prefix) {
+        DataSourceProperties properties = Binder.get(environment)
+                .bind(prefix, DataSourceProperties.class)
+                .orElseThrow(() -> new IllegalStateException(prefix + ".url is not configured"));
+        return properties.initializeDataSourceBuilder().build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.grapeup.hotelreservation.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Role {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(Map.of(Role.PRIMARY, primary, Role.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String clientId = ClientContext.getClientId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit(clientId);
+            return Role.PRIMARY;
+        }
+        return readYourWritesTracker.hasRecentWrite(clientId) ? Role.PRIMARY : Role.REPLICA;
+    }
+
+    private void recordWriteOnCommit(String clientId) {
+        if (clientId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                readYourWritesTracker.recordWrite(clientId);
+            }
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package com.grapeup.hotelreservation.datasource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ReadYourWritesTracker {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final Duration maxLag;
+
+    private final Clock clock;
+
+    private final Map<String, Instant> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration maxLag, Clock clock) {
+        this.maxLag = maxLag;
+        this.clock = clock;
+    }
+
+    public void recordWrite(String clientId) {
+        if (clientId == null) {
+            return;
+        }
+        Instant now = clock.instant();
+        if (lastWrites.size() > PURGE_THRESHOLD) {
+            lastWrites.values().removeIf(lastWrite -> isExpired(lastWrite, now));
+        }
+        lastWrites.put(clientId, now);
+    }
+
+    // True while the replica may still be missing the client's last commit.
+    public boolean hasRecentWrite(String clientId) {
+        if (clientId == null) {
+            return false;
+        }
+        Instant lastWrite = lastWrites.get(clientId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (isExpired(lastWrite, clock.instant())) {
+            lastWrites.remove(clientId, lastWrite);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isExpired(Instant lastWrite, Instant now) {
+        return !lastWrite.plus(maxLag).isAfter(now);
+    }
+}
@@ -0,0 +1,27 @@
+package com.grapeup.hotelreservation.dto;
+
+import com.grapeup.hotelreservation.model.RoomType;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@Builder
+public class AvailabilityDto {
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private int numberOfPeople;
+
+    private List<Long> roomIds;
+
+    private Map<RoomType, Integer> roomsPerType;
+
+}
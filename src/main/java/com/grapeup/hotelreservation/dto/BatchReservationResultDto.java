@@ -0,0 +1,23 @@
+package com.grapeup.hotelreservation.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+public class BatchReservationResultDto {
+
+    private int index;
+
+    private HttpStatus status;
+
+    private ReservationDto reservation;
+
+    private List<String> errors;
+
+}
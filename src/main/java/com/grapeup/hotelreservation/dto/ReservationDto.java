@@ -1,6 +1,7 @@
 package com.grapeup.hotelreservation.dto;
 
 import com.grapeup.hotelreservation.validator.StartDateBeforeEnd;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,6 +12,7 @@ import java.time.LocalDate;
 @Getter
 @Setter
 @Builder
+@AllArgsConstructor
 @StartDateBeforeEnd
 public class ReservationDto {
 
@@ -0,0 +1,26 @@
+package com.grapeup.hotelreservation.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+public class ReservationImportDto {
+
+    private String importId;
+
+    private long processedRows;
+
+    private long importedRows;
+
+    private long rejectedRows;
+
+    private boolean completed;
+
+    private List<String> errors;
+
+}
@@ -0,0 +1,12 @@
+package com.grapeup.hotelreservation.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ReservationDeletedEvent {
+
+    private final Long reservationId;
+
+}
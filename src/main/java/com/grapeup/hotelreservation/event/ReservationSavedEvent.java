@@ -0,0 +1,13 @@
+package com.grapeup.hotelreservation.event;
+
+import com.grapeup.hotelreservation.dto.ReservationDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ReservationSavedEvent {
+
+    private final ReservationDto reservation;
+
+}
@@ -0,0 +1,20 @@
+package com.grapeup.hotelreservation.event;
+
+import com.grapeup.hotelreservation.model.Room;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class RoomRatingsSynchronizedEvent {
+
+    private final List<Room> rooms;
+
+    private final int changedRooms;
+
+    private final Instant synchronizedAt;
+
+}
@@ -0,0 +1,14 @@
+package com.grapeup.hotelreservation.exception;
+
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value= HttpStatus.BAD_REQUEST, reason="Incorrect CSV header")
+@NoArgsConstructor
+public class IncorrectCsvHeaderException extends IllegalArgumentException {
+
+    public IncorrectCsvHeaderException(String s) {
+        super(s);
+    }
+}
@@ -0,0 +1,14 @@
+package com.grapeup.hotelreservation.exception;
+
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value= HttpStatus.BAD_REQUEST, reason="Start date should be before end date")
+@NoArgsConstructor
+public class IncorrectDatesException extends IllegalArgumentException {
+
+    public IncorrectDatesException(String s) {
+        super(s);
+    }
+}
@@ -0,0 +1,14 @@
+package com.grapeup.hotelreservation.exception;
+
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value= HttpStatus.SERVICE_UNAVAILABLE, reason="Rating service unavailable")
+@NoArgsConstructor
+public class RatingServiceUnavailableException extends IllegalStateException {
+
+    public RatingServiceUnavailableException(String s) {
+        super(s);
+    }
+}
@@ -0,0 +1,25 @@
+package com.grapeup.hotelreservation.journal;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class JournalEntry {
+
+    public enum Type {
+        PUT,
+        DELETE
+    }
+
+    private final long sequence;
+
+    private final Type type;
+
+    private final Long reservationId;
+
+    // Only set for PUT entries.
+    private final Reservation reservation;
+
+}
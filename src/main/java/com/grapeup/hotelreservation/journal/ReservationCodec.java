@@ -0,0 +1,32 @@
+package com.grapeup.hotelreservation.journal;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+
+abstract class ReservationCodec {
+
+    static void write(DataOutput out, Reservation reservation) throws IOException {
+        out.writeLong(reservation.getId());
+        out.writeLong(reservation.getRoom().getId());
+        out.writeInt(reservation.getNumberOfPeople());
+        out.writeLong(reservation.getStartDate().toEpochDay());
+        out.writeLong(reservation.getEndDate().toEpochDay());
+        out.writeUTF(reservation.getUsername());
+    }
+
+    static Reservation read(DataInput in) throws IOException {
+        return Reservation.builder()
+                .id(in.readLong())
+                .room(Room.builder().id(in.readLong()).build())
+                .numberOfPeople(in.readInt())
+                .startDate(LocalDate.ofEpochDay(in.readLong()))
+                .endDate(LocalDate.ofEpochDay(in.readLong()))
+                .username(in.readUTF())
+                .build();
+    }
+}
@@ -0,0 +1,181 @@
+package com.grapeup.hotelreservation.journal;
+
+import com.grapeup.hotelreservation.model.Reservation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of reservation changes in a memory-mapped file. Each
+ * entry is framed as {@code [length][crc32][payload]}; replay stops at the
+ * first empty or torn frame, which is where appending continues.
+ */
+public class ReservationJournal implements Closeable {
+
+    private static final int FRAME_HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final FileChannel channel;
+
+    private final boolean sync;
+
+    private MappedByteBuffer buffer;
+
+    private long lastSequence;
+
+    public ReservationJournal(Path file, int initialSize, boolean sync) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.sync = sync;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                Math.max(initialSize, (int) Math.min(channel.size(), Integer.MAX_VALUE)));
+    }
+
+    /**
+     * Passes every intact entry newer than {@code afterSequence} to the
+     * consumer and positions the journal after the last intact entry.
+     */
+    public synchronized void replay(long afterSequence, Consumer<JournalEntry> consumer) {
+        buffer.position(0);
+        lastSequence = afterSequence;
+        long previousSequence = Long.MIN_VALUE;
+        while (buffer.remaining() >= FRAME_HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            JournalEntry entry = checksum(payload) == checksum ? decode(payload) : null;
+            if (entry == null || entry.getSequence() <= previousSequence) {
+                buffer.position(start);
+                break;
+            }
+            previousSequence = entry.getSequence();
+            if (entry.getSequence() > afterSequence) {
+                consumer.accept(entry);
+                lastSequence = entry.getSequence();
+            }
+        }
+    }
+
+    public synchronized long appendPut(Reservation reservation) {
+        return append(JournalEntry.Type.PUT, reservation.getId(), reservation);
+    }
+
+    public synchronized long appendDelete(Long reservationId) {
+        return append(JournalEntry.Type.DELETE, reservationId, null);
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Drops all entries once a snapshot covers them. The used part of the
+     * file is zeroed so that old frames cannot be replayed after new ones.
+     */
+    public synchronized void truncate() {
+        int used = buffer.position();
+        buffer.position(0);
+        for (int i = 0; i < used; i++) {
+            buffer.put((byte) 0);
+        }
+        buffer.position(0);
+        force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private long append(JournalEntry.Type type, Long reservationId, Reservation reservation) {
+        long sequence = lastSequence + 1;
+        byte[] payload = encode(sequence, type, reservationId, reservation);
+        ensureCapacity(FRAME_HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt(checksum(payload));
+        buffer.put(payload);
+        if (sync) {
+            force();
+        }
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    private void ensureCapacity(int frameBytes) {
+        if (buffer.remaining() >= frameBytes) {
+            return;
+        }
+        int position = buffer.position();
+        long newSize = Math.max((long) buffer.capacity() * 2, (long) position + frameBytes);
+        if (newSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Reservation journal is full, a snapshot is overdue");
+        }
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+            buffer.position(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void force() {
+        buffer.force();
+    }
+
+    private static byte[] encode(long sequence, JournalEntry.Type type, Long reservationId,
+                                  Reservation reservation) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(sequence);
+            out.writeByte(type.ordinal());
+            out.writeLong(reservationId);
+            if (type == JournalEntry.Type.PUT) {
+                ReservationCodec.write(out, reservation);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static JournalEntry decode(byte[] payload) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            long sequence = in.readLong();
+            JournalEntry.Type type = JournalEntry.Type.values()[in.readByte()];
+            Long reservationId = in.readLong();
+            Reservation reservation = type == JournalEntry.Type.PUT ? ReservationCodec.read(in) : null;
+            return new JournalEntry(sequence, type, reservationId, reservation);
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
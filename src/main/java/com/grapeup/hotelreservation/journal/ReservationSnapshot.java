@@ -0,0 +1,75 @@
+package com.grapeup.hotelreservation.journal;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Compact image of all reservations up to a journal sequence. It is written
+ * to a temporary file and moved into place, so a reader sees either the
+ * previous snapshot or the complete new one.
+ */
+@Getter
+@AllArgsConstructor
+public class ReservationSnapshot {
+
+    private static final int MAGIC = 0x52534e50;
+
+    private static final int VERSION = 1;
+
+    private final long sequence;
+
+    private final List<Reservation> reservations;
+
+    public static void write(Path file, long sequence, Collection<Reservation> reservations)
+            throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temporary.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sequence);
+            out.writeInt(reservations.size());
+            for (Reservation reservation : reservations) {
+                ReservationCodec.write(out, reservation);
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Optional<ReservationSnapshot> read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try (InputStream fileIn = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported reservation snapshot " + file);
+            }
+            long sequence = in.readLong();
+            int count = in.readInt();
+            List<Reservation> reservations = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                reservations.add(ReservationCodec.read(in));
+            }
+            return Optional.of(new ReservationSnapshot(sequence, reservations));
+        }
+    }
+}
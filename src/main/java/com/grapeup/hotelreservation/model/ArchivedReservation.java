@@ -0,0 +1,50 @@
+package com.grapeup.hotelreservation.model;
+
+import java.time.LocalDate;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "reservation_archive")
+public class ArchivedReservation {
+
+    @Id
+    private Long id;
+
+    private String username;
+
+    @Column(name ="number_of_people")
+    private int numberOfPeople;
+
+    @Column(name ="start_date")
+    private LocalDate startDate;
+
+    @Column(name ="end_date")
+    private LocalDate endDate;
+
+    @Column(name ="room_id")
+    private Long roomId;
+
+    public Reservation toReservation() {
+        return Reservation.builder()
+                .id(id)
+                .username(username)
+                .numberOfPeople(numberOfPeople)
+                .startDate(startDate)
+                .endDate(endDate)
+                .room(Room.builder().id(roomId).build())
+                .build();
+    }
+}
@@ -11,6 +11,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import lombok.Builder;
 import lombok.Getter;
@@ -26,7 +27,9 @@ import lombok.Setter;
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", sequenceName = "reservation_seq",
+            initialValue = 5, allocationSize = 50)
     private Long id;
 
     private String username;
@@ -40,7 +43,7 @@ public class Reservation {
     @Column(name ="end_date")
     private LocalDate endDate;
 
-    @ManyToOne (fetch = FetchType.EAGER)
+    @ManyToOne (fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id")
     private Room room;
 
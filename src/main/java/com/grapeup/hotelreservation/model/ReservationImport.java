@@ -0,0 +1,35 @@
+package com.grapeup.hotelreservation.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "reservation_import")
+public class ReservationImport {
+
+    @Id
+    private String id;
+
+    @Column(name ="processed_rows")
+    private long processedRows;
+
+    @Column(name ="imported_rows")
+    private long importedRows;
+
+    @Column(name ="rejected_rows")
+    private long rejectedRows;
+
+    private boolean completed;
+}
@@ -5,7 +5,10 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -26,8 +29,12 @@ import java.util.Set;
 @AllArgsConstructor
 @Entity
 @Table(name = "room")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Room.CACHE_REGION)
 public class Room {
 
+    public static final String CACHE_REGION = "room";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -36,6 +43,10 @@ public class Room {
     @Column(name = "room_type")
     private RoomType roomType;
 
+    // Local copy of the rating service's score, kept current by
+    // RoomRatingSynchronizer.
+    private double rating;
+
     @OneToMany(cascade = CascadeType.ALL,
             fetch = FetchType.LAZY,
             mappedBy = "room")
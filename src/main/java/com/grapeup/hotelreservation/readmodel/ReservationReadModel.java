@@ -0,0 +1,183 @@
+package com.grapeup.hotelreservation.readmodel;
+
+import com.grapeup.hotelreservation.dto.ReservationDto;
+import com.grapeup.hotelreservation.event.ReservationDeletedEvent;
+import com.grapeup.hotelreservation.event.ReservationSavedEvent;
+import com.grapeup.hotelreservation.service.ReservationService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Denormalized copy of all reservations, keyed by id with secondary
+ * indexes by room, username and start date. It is filled once on start and then kept
+ * current by the events the reservation services publish after commit, so
+ * queries never touch the ORM.
+ * <p>
+ * Every instance holds one DTO per live reservation, plus its id in the room,
+ * username and start date indexes, roughly 250 bytes per reservation. Ended stays leave
+ * it when reservation.archive.enabled moves them to the archive, so the
+ * size follows the number of current and future bookings, not the history.
+ */
+@Component
+public class ReservationReadModel {
+
+    private ReservationService reservationService;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final ConcurrentNavigableMap<Long, ReservationDto> reservations = new ConcurrentSkipListMap<>();
+
+    private final Map<Long, NavigableSet<Long>> idsByRoom = new ConcurrentHashMap<>();
+
+    private final Map<String, NavigableSet<Long>> idsByUsername = new ConcurrentHashMap<>();
+
+    private final ConcurrentNavigableMap<LocalDate, NavigableSet<Long>> idsByStartDate = new ConcurrentSkipListMap<>();
+
+    public ReservationReadModel(ReservationService reservationService,
+                                TransactionTemplate transactionTemplate) {
+        this.reservationService = reservationService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Loaded in a read-write transaction, so it always reads the primary.
+    @PostConstruct
+    public void load() {
+        transactionTemplate.executeWithoutResult(status -> reservationService.exportDtos(this::put));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationSavedEvent event) {
+        put(event.getReservation());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationDeletedEvent event) {
+        remove(event.getReservationId());
+    }
+
+    public Optional<ReservationDto> findById(Long id) {
+        return Optional.ofNullable(reservations.get(id));
+    }
+
+    public List<ReservationDto> findAll() {
+        return List.copyOf(reservations.values());
+    }
+
+    public List<ReservationDto> findAfter(Long afterId, int limit) {
+        return reservations.tailMap(afterId, false).values().stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public List<ReservationDto> findForRoom(Long roomId) {
+        return lookup(idsByRoom.getOrDefault(roomId, Collections.emptyNavigableSet()).stream());
+    }
+
+    public List<ReservationDto> findForRoomAfter(Long roomId, Long afterId, int limit) {
+        return lookup(idsByRoom.getOrDefault(roomId, Collections.emptyNavigableSet())
+                .tailSet(afterId, false).stream()
+                .limit(limit));
+    }
+
+    public List<ReservationDto> findForUsername(String username) {
+        return lookup(idsByUsername.getOrDefault(username, Collections.emptyNavigableSet()).stream());
+    }
+
+    // A username narrows the search to that guest's few bookings; without
+    // one the start date index is scanned over the requested range.
+    public List<ReservationDto> findStartingBetween(String username, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return List.of();
+        }
+        Stream<Long> ids = username != null
+                ? idsByUsername.getOrDefault(username, Collections.emptyNavigableSet()).stream()
+                : idsByStartDate.subMap(from, true, to, true).values().stream().flatMap(Collection::stream);
+        return ids.map(reservations::get)
+                .filter(Objects::nonNull)
+                .filter(reservation -> !reservation.getStartDate().isBefore(from)
+                        && !reservation.getStartDate().isAfter(to))
+                .sorted(Comparator.comparing(ReservationDto::getStartDate).thenComparing(ReservationDto::getId))
+                .collect(Collectors.toList());
+    }
+
+    // Walks the live maps rather than a copy, so an export holds no more
+    // than the read model already does.
+    public void forEach(Long roomId, Consumer<ReservationDto> action) {
+        if (roomId == null) {
+            reservations.values().forEach(action);
+        } else {
+            idsByRoom.getOrDefault(roomId, Collections.emptyNavigableSet()).stream()
+                    .map(reservations::get)
+                    .filter(Objects::nonNull)
+                    .forEach(action);
+        }
+    }
+
+    private synchronized void put(ReservationDto reservation) {
+        remove(reservation.getId());
+        reservations.put(reservation.getId(), reservation);
+        if (reservation.getRoomId() != null) {
+            idsByRoom.computeIfAbsent(reservation.getRoomId(), id -> new ConcurrentSkipListSet<>())
+                    .add(reservation.getId());
+        }
+        if (reservation.getUsername() != null) {
+            idsByUsername.computeIfAbsent(reservation.getUsername(), name -> new ConcurrentSkipListSet<>())
+                    .add(reservation.getId());
+        }
+        if (reservation.getStartDate() != null) {
+            idsByStartDate.computeIfAbsent(reservation.getStartDate(), date -> new ConcurrentSkipListSet<>())
+                    .add(reservation.getId());
+        }
+    }
+
+    private synchronized void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        ReservationDto previous = reservations.remove(id);
+        if (previous == null) {
+            return;
+        }
+        if (previous.getRoomId() != null) {
+            removeFrom(idsByRoom, previous.getRoomId(), id);
+        }
+        if (previous.getUsername() != null) {
+            removeFrom(idsByUsername, previous.getUsername(), id);
+        }
+        if (previous.getStartDate() != null) {
+            removeFrom(idsByStartDate, previous.getStartDate(), id);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, NavigableSet<Long>> index, K key, Long id) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private List<ReservationDto> lookup(Stream<Long> ids) {
+        return ids.map(reservations::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
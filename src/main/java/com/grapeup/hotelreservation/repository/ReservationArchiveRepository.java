@@ -0,0 +1,25 @@
+package com.grapeup.hotelreservation.repository;
+
+import com.grapeup.hotelreservation.model.ArchivedReservation;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReservationArchiveRepository extends CrudRepository<ArchivedReservation, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO reservation_archive "
+            + "(id, username, number_of_people, start_date, end_date, room_id) "
+            + "SELECT id, username, number_of_people, start_date, end_date, room_id "
+            + "FROM reservation WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromReservations(@Param("ids") List<Long> ids);
+
+    @Query("SELECT MAX(r.id) FROM ArchivedReservation r")
+    Optional<Long> findMaxId();
+}
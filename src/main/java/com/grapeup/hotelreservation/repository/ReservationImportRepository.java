@@ -0,0 +1,10 @@
+package com.grapeup.hotelreservation.repository;
+
+import com.grapeup.hotelreservation.model.ReservationImport;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReservationImportRepository extends CrudRepository<ReservationImport, String> {
+
+}
@@ -1,13 +1,23 @@
 package com.grapeup.hotelreservation.repository;
 
+import com.grapeup.hotelreservation.dto.ReservationDto;
 import com.grapeup.hotelreservation.model.Reservation;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface ReservationRepository extends CrudRepository<Reservation, Long> {
 
@@ -15,4 +25,31 @@ public interface ReservationRepository extends CrudRepository<Reservation, Long>
 
     @Query("SELECT r FROM Reservation r WHERE r.room.id = :roomId")
     List<Reservation> findForRoom(Long roomId);
+
+    @Query("SELECT new com.grapeup.hotelreservation.dto.ReservationDto(r.id, r.username, "
+            + "r.numberOfPeople, r.startDate, r.endDate, r.room.id) FROM Reservation r")
+    List<ReservationDto> findAllDtos();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.grapeup.hotelreservation.dto.ReservationDto(r.id, r.username, "
+            + "r.numberOfPeople, r.startDate, r.endDate, r.room.id) FROM Reservation r ORDER BY r.id")
+    Stream<ReservationDto> streamAllDtos();
+
+    @Query("SELECT COUNT(r) > 0 FROM Reservation r WHERE r.room.id = :roomId "
+            + "AND (:ignoredId IS NULL OR r.id <> :ignoredId) "
+            + "AND r.startDate <= :endDate AND r.endDate >= :startDate")
+    boolean existsOverlapping(@Param("roomId") Long roomId,
+                              @Param("ignoredId") Long ignoredReservationId,
+                              @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT r.id FROM Reservation r WHERE r.endDate < :cutoff ORDER BY r.id")
+    List<Long> findIdsEndingBefore(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    @Query("SELECT MAX(r.id) FROM Reservation r")
+    Optional<Long> findMaxId();
 }
@@ -0,0 +1,61 @@
+package com.grapeup.hotelreservation.repository;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Repository
+public class RoomNightRepository {
+
+    private static final String INSERT_NIGHT =
+            "INSERT INTO room_night (room_id, night, reservation_id) VALUES (?, ?, ?)";
+
+    private static final String DELETE_NIGHTS =
+            "DELETE FROM room_night WHERE reservation_id = ?";
+
+    private static final String FIND_UNCLAIMED_RESERVATIONS =
+            "SELECT r.id, r.room_id, r.start_date, r.end_date FROM reservation r "
+                    + "WHERE r.room_id IS NOT NULL AND NOT EXISTS "
+                    + "(SELECT 1 FROM room_night n WHERE n.reservation_id = r.id)";
+
+    private static final String FIND_CLAIMING_RESERVATIONS =
+            "SELECT DISTINCT reservation_id FROM room_night "
+                    + "WHERE room_id = ? AND night BETWEEN ? AND ? ORDER BY reservation_id";
+
+    private JdbcTemplate jdbcTemplate;
+
+    public RoomNightRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // The end date is claimed as well, matching the inclusive overlap check
+    // used when rooms are assigned.
+    public void claim(Long reservationId, Long roomId, LocalDate startDate, LocalDate endDate) {
+        List<Object[]> nights = startDate.datesUntil(endDate.plusDays(1))
+                .map(night -> new Object[]{roomId, night, reservationId})
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(INSERT_NIGHT, nights);
+    }
+
+    public void release(Long reservationId) {
+        jdbcTemplate.update(DELETE_NIGHTS, reservationId);
+    }
+
+    public List<Long> findClaimingReservations(Long roomId, LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.queryForList(FIND_CLAIMING_RESERVATIONS, Long.class, roomId, startDate, endDate);
+    }
+
+    public List<Reservation> findUnclaimedReservations() {
+        return jdbcTemplate.query(FIND_UNCLAIMED_RESERVATIONS, (rs, rowNum) -> Reservation.builder()
+                .id(rs.getLong("id"))
+                .room(Room.builder().id(rs.getLong("room_id")).build())
+                .startDate(rs.getObject("start_date", LocalDate.class))
+                .endDate(rs.getObject("end_date", LocalDate.class))
+                .build());
+    }
+}
@@ -2,16 +2,37 @@ package com.grapeup.hotelreservation.repository;
 
 import com.grapeup.hotelreservation.model.Room;
 import com.grapeup.hotelreservation.model.RoomType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 @Repository
 public interface RoomRepository extends CrudRepository<Room, Long> {
+
+    String CAPACITY_QUERY_CACHE_REGION = "room-capacity";
+
     //JPA find by
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CAPACITY_QUERY_CACHE_REGION)})
     @Query("SELECT r FROM Room r WHERE r.roomType = :roomType")
     List<Room> findRoomsWithCapacity(@Param("roomType") RoomType roomType);
+
+    @Query("SELECT r FROM Room r WHERE r.roomType = :roomType AND NOT EXISTS ("
+            + "SELECT b.id FROM Reservation b WHERE b.room = r "
+            + "AND b.startDate <= :endDate AND b.endDate >= :startDate) "
+            + "ORDER BY r.id")
+    List<Room> findAvailableRooms(@Param("roomType") RoomType roomType,
+                                  @Param("startDate") LocalDate startDate,
+                                  @Param("endDate") LocalDate endDate,
+                                  Pageable pageable);
 }
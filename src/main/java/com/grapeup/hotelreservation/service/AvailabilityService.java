@@ -0,0 +1,13 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface AvailabilityService {
+
+    Map<RoomType, List<Long>> findAvailableRooms(LocalDate startDate, LocalDate endDate, int numberOfPeople);
+
+}
@@ -0,0 +1,58 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "reservation.assignment.strategy", havingValue = "best-fit")
+public class BestFitRoomAssignmentStrategy implements RoomAssignmentStrategy {
+
+    // An empty side of the calendar counts as a very large gap, so rooms that
+    // are still free for long stays are used last.
+    private static final long OPEN_GAP = Integer.MAX_VALUE;
+
+    private AvailabilityIndex availabilityIndex;
+
+    public BestFitRoomAssignmentStrategy(AvailabilityIndex availabilityIndex) {
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    @Override
+    public List<Room> order(List<Room> availableRooms, Reservation reservation) {
+        if (availableRooms.size() < 2) {
+            return availableRooms;
+        }
+        Map<Long, Long> gaps = availableRooms.stream()
+                .map(Room::getId)
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), roomId -> gapsAround(roomId, reservation)));
+
+        return availableRooms.stream()
+                .sorted(Comparator.comparing(room -> gaps.get(room.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private long gapsAround(Long roomId, Reservation reservation) {
+        LocalDate startDate = reservation.getStartDate();
+        LocalDate endDate = reservation.getEndDate();
+
+        long gapBefore = availabilityIndex.findLastBookedDayBefore(roomId, startDate)
+                .map(bookedDay -> ChronoUnit.DAYS.between(bookedDay, startDate) - 1)
+                .orElse(OPEN_GAP);
+        long gapAfter = availabilityIndex.findFirstBookedDayAfter(roomId, endDate)
+                .map(bookedDay -> ChronoUnit.DAYS.between(endDate, bookedDay) - 1)
+                .orElse(OPEN_GAP);
+        return gapBefore + gapAfter;
+    }
+}
@@ -0,0 +1,36 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.exception.IncorrectDatesException;
+import com.grapeup.hotelreservation.model.RoomType;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class DefaultAvailabilityService implements AvailabilityService {
+
+    private AvailabilityIndex availabilityIndex;
+
+    public DefaultAvailabilityService(AvailabilityIndex availabilityIndex) {
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    @Override
+    public Map<RoomType, List<Long>> findAvailableRooms(LocalDate startDate, LocalDate endDate,
+                                                         int numberOfPeople) {
+        if (!startDate.isBefore(endDate)) {
+            throw new IncorrectDatesException();
+        }
+        // Bookings are only ever assigned a room of the fitting type, so larger
+        // rooms are left out: a search never offers what a booking refuses.
+        RoomType fitting = RoomType.getFittingSize(numberOfPeople);
+
+        Map<RoomType, List<Long>> availableRooms = new EnumMap<>(RoomType.class);
+        availableRooms.put(fitting, availabilityIndex.findAvailableRooms(fitting, startDate, endDate));
+        return availableRooms;
+    }
+}
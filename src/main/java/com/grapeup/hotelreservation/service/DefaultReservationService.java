@@ -1,41 +1,187 @@
 package com.grapeup.hotelreservation.service;
 
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.converter.ReservationConverter;
+import com.grapeup.hotelreservation.dto.ReservationDto;
+import com.grapeup.hotelreservation.event.ReservationDeletedEvent;
+import com.grapeup.hotelreservation.event.ReservationSavedEvent;
 import com.grapeup.hotelreservation.exception.AvailableRoomNotFoundException;
+import com.grapeup.hotelreservation.model.ArchivedReservation;
 import com.grapeup.hotelreservation.model.Reservation;
 import com.grapeup.hotelreservation.model.Room;
 import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.repository.ReservationArchiveRepository;
 import com.grapeup.hotelreservation.repository.ReservationRepository;
+import org.hibernate.Hibernate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@ConditionalOnProperty(name = "reservation.persistence.mode", havingValue = "jpa", matchIfMissing = true)
 public class DefaultReservationService  implements ReservationService {
 
-    private ReservationRepository reservationRepository;
+    protected ReservationRepository reservationRepository;
 
-    private RoomService roomService;
+    protected RoomService roomService;
+
+    private AvailabilityIndex availabilityIndex;
+
+    private ReservationLocks reservationLocks;
+
+    protected TransactionTemplate transactionTemplate;
+
+    private ReservationArchiveRepository reservationArchiveRepository;
+
+    private ApplicationEventPublisher eventPublisher;
 
     public DefaultReservationService(ReservationRepository reservationRepository,
-                                     RoomService roomService) {
+                                     RoomService roomService,
+                                     AvailabilityIndex availabilityIndex,
+                                     ReservationLocks reservationLocks,
+                                     TransactionTemplate transactionTemplate,
+                                     ReservationArchiveRepository reservationArchiveRepository,
+                                     ApplicationEventPublisher eventPublisher) {
         this.reservationRepository = reservationRepository;
         this.roomService = roomService;
+        this.availabilityIndex = availabilityIndex;
+        this.reservationLocks = reservationLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.reservationArchiveRepository = reservationArchiveRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Reservation> findAll() {
         return reservationRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Reservation> findById(Long id) {
         return reservationRepository.findById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Reservation> findByIdIncludingArchived(Long id) {
+        Optional<Reservation> reservation = reservationRepository.findById(id);
+        if (reservation.isPresent()) {
+            return reservation;
+        }
+        return reservationArchiveRepository.findById(id).map(ArchivedReservation::toReservation);
+    }
+
+    // Bookings run in a read-write transaction, so the availability reads
+    // they make join it and are served by the primary. The stay is booked in
+    // the index before the insert is flushed at commit; if the commit fails
+    // the booking is taken back.
     @Override
     public Reservation save(Reservation reservation) {
+        return reservationLocks.withLock(reservation, () -> {
+            try {
+                return transactionTemplate.execute(status -> saveWithAssignedRoom(reservation));
+            } catch (RuntimeException e) {
+                availabilityIndex.release(reservation.getId());
+                throw e;
+            }
+        });
+    }
+
+    // The whole batch is assigned under one set of stripe locks and saved in
+    // one transaction. Sequence ids let Hibernate defer the inserts to the
+    // commit and send them as JDBC batches.
+    @Override
+    public List<Optional<Reservation>> saveAll(List<Reservation> reservations) {
+        return reservationLocks.withLock(reservations, () -> {
+            List<Optional<Reservation>> saved = new ArrayList<>(reservations.size());
+            try {
+                transactionTemplate.executeWithoutResult(status -> assignAndSaveAll(reservations, saved));
+            } catch (RuntimeException e) {
+                saved.forEach(reservation -> reservation.ifPresent(r -> availabilityIndex.release(r.getId())));
+                throw e;
+            }
+            return saved;
+        });
+    }
+
+    // A failed update puts the stay it replaced back into the index.
+    @Override
+    public Optional<Reservation> update(Reservation reservation, Reservation existingReservation) {
+        LocalDate startDate = existingReservation.getStartDate();
+        LocalDate endDate = existingReservation.getEndDate();
+        Room room = existingReservation.getRoom();
+        return reservationLocks.withLock(reservation, () -> {
+            try {
+                return transactionTemplate.execute(status -> updateWithAssignedRoom(reservation, existingReservation));
+            } catch (RuntimeException e) {
+                if (room != null) {
+                    availabilityIndex.book(existingReservation.getId(), room.getId(), startDate, endDate);
+                } else {
+                    availabilityIndex.release(existingReservation.getId());
+                }
+                throw e;
+            }
+        });
+    }
+
+    // A delete takes the stripes of the stay it removes, like every other
+    // write, and frees the stay in the index only once the row is gone.
+    @Override
+    public void delete(Long id) {
+        if (id == null) {
+            return;
+        }
+        reservationRepository.findById(id).ifPresent(existing -> reservationLocks.withLock(existing,
+                () -> transactionTemplate.execute(status -> {
+                    reservationRepository.deleteById(id);
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCommit() {
+                            availabilityIndex.release(id);
+                        }
+                    });
+                    eventPublisher.publishEvent(new ReservationDeletedEvent(id));
+                    return null;
+                })));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Reservation> findForRoom(Long roomId) {
+        return reservationRepository.findForRoom(roomId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReservationDto> findAllDtos() {
+        return reservationRepository.findAllDtos();
+    }
+
+    // The stream holds an open cursor, so it has to be consumed inside the
+    // read-only transaction.
+    @Override
+    @Transactional(readOnly = true)
+    public void exportDtos(Consumer<ReservationDto> action) {
+        try (Stream<ReservationDto> reservations = reservationRepository.streamAllDtos()) {
+            reservations.forEach(action);
+        }
+    }
+
+    private Reservation saveWithAssignedRoom(Reservation reservation) {
 
         Optional<Room> availableRoom = roomService.assignRoom(reservation);
         if (availableRoom.isPresent()) {
@@ -43,16 +189,36 @@ public class DefaultReservationService  implements ReservationService {
         } else {
             throw new AvailableRoomNotFoundException();
         }
-        return reservationRepository.save(reservation);
+        return index(reservationRepository.save(reservation));
     }
 
-    @Override
-    public Optional<Reservation> update(Reservation reservation, Reservation existingReservation) {
+    private void assignAndSaveAll(List<Reservation> reservations, List<Optional<Reservation>> saved) {
+        for (Reservation reservation : reservations) {
+            Optional<Room> availableRoom = roomService.assignRoom(reservation);
+            if (availableRoom.isEmpty()) {
+                saved.add(Optional.empty());
+                continue;
+            }
+            reservation.setRoom(availableRoom.get());
+            Reservation savedReservation = index(reservationRepository.save(reservation));
+
+            // Later items of the batch must see this stay before it is flushed.
+            // Only a collection that has already been loaded is read again.
+            Set<Reservation> roomReservations = availableRoom.get().getReservations();
+            if (roomReservations != null && Hibernate.isInitialized(roomReservations)) {
+                roomReservations.add(savedReservation);
+            }
+            saved.add(Optional.of(savedReservation));
+        }
+    }
+
+    private Optional<Reservation> updateWithAssignedRoom(Reservation reservation,
+                                                         Reservation existingReservation) {
 
         if (roomSizeAndDatesNotChanged(reservation, existingReservation)
             || roomSizeNotChangedAndDatesInCurrentRumAreAvailable(reservation, existingReservation,
                 roomService.areDatesAvailableInCurrentRoom(reservation))) {
-            return Optional.of(reservationRepository.save(reservation));
+            return Optional.of(index(reservationRepository.save(reservation)));
         }
 
         Optional<Room> availableRoom = roomService.assignRoom(reservation);
@@ -62,17 +228,15 @@ public class DefaultReservationService  implements ReservationService {
         } else {
             throw new AvailableRoomNotFoundException();
         }
-        return Optional.of(reservationRepository.save(reservation));
-    }
-
-    @Override
-    public void delete(Long id) {
-        reservationRepository.deleteById(id);
+        return Optional.of(index(reservationRepository.save(reservation)));
     }
 
-    @Override
-    public List<Reservation> findForRoom(Long roomId) {
-        return reservationRepository.findForRoom(roomId);
+    // Read models apply the event once the surrounding transaction commits.
+    protected Reservation index(Reservation saved) {
+        availabilityIndex.book(saved.getId(), saved.getRoom().getId(),
+                saved.getStartDate(), saved.getEndDate());
+        eventPublisher.publishEvent(new ReservationSavedEvent(ReservationConverter.toDto(saved)));
+        return saved;
     }
 
     private static boolean roomSizeAndDatesNotChanged(Reservation updated,
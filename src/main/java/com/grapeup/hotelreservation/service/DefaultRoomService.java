@@ -7,17 +7,23 @@ import com.grapeup.hotelreservation.repository.RoomRepository;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 
 @Service
+@ConditionalOnProperty(name = "reservation.availability.engine", havingValue = "stream", matchIfMissing = true)
 public class DefaultRoomService implements RoomService {
 
     private RoomRepository roomRepository;
 
-    public DefaultRoomService(RoomRepository roomRepository) {
+    private RoomAssignmentStrategy roomAssignmentStrategy;
+
+    public DefaultRoomService(RoomRepository roomRepository,
+                              RoomAssignmentStrategy roomAssignmentStrategy) {
         this.roomRepository = roomRepository;
+        this.roomAssignmentStrategy = roomAssignmentStrategy;
     }
 
     @Override
@@ -35,25 +41,35 @@ public class DefaultRoomService implements RoomService {
 
     @Override
     public Optional<Room> assignRoom(Reservation reservation) {
+        if (roomAssignmentStrategy.needsAllCandidates()) {
+            return findAvailableRooms(reservation).stream().findFirst();
+        }
         RoomType roomType = RoomType.getFittingSize(reservation.getNumberOfPeople());
 
-        List<Room> rooms = roomRepository.findRoomsWithCapacity(roomType);
-
-        Optional<Room> availableRoom = rooms.stream()
-                .filter(room -> room.getReservations().stream()
-                        .filter(bookedReservation ->
-                                areIntervalsOverlapping(bookedReservation.getStartDate(),
-                                        bookedReservation.getEndDate(),
-                                        reservation.getStartDate(),
-                                        reservation.getEndDate()))
-                        .findAny()
-                        .isEmpty())
+        return roomRepository.findRoomsWithCapacity(roomType).stream()
+                .filter(room -> isRoomAvailable(room, reservation))
                 .findFirst();
+    }
 
-        if (availableRoom.isEmpty()) {
-            return Optional.empty();
-        }
-        return Optional.of(availableRoom.get());
+    @Override
+    public List<Room> findAvailableRooms(Reservation reservation) {
+        RoomType roomType = RoomType.getFittingSize(reservation.getNumberOfPeople());
+
+        List<Room> availableRooms = roomRepository.findRoomsWithCapacity(roomType).stream()
+                .filter(room -> isRoomAvailable(room, reservation))
+                .collect(Collectors.toList());
+        return roomAssignmentStrategy.order(availableRooms, reservation);
+    }
+
+    private static boolean isRoomAvailable(Room room, Reservation reservation) {
+        return room.getReservations().stream()
+                .filter(bookedReservation ->
+                        areIntervalsOverlapping(bookedReservation.getStartDate(),
+                                bookedReservation.getEndDate(),
+                                reservation.getStartDate(),
+                                reservation.getEndDate()))
+                .findAny()
+                .isEmpty();
     }
 
     private static boolean areIntervalsOverlapping(LocalDate start1, LocalDate end1,
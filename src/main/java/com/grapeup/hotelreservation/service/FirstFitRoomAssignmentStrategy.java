@@ -0,0 +1,23 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "reservation.assignment.strategy", havingValue = "first-fit", matchIfMissing = true)
+public class FirstFitRoomAssignmentStrategy implements RoomAssignmentStrategy {
+
+    @Override
+    public List<Room> order(List<Room> availableRooms, Reservation reservation) {
+        return availableRooms;
+    }
+
+    @Override
+    public boolean needsAllCandidates() {
+        return false;
+    }
+}
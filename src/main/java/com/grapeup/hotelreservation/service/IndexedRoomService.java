@@ -0,0 +1,81 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.repository.RoomRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+@Service
+@ConditionalOnExpression("'${reservation.availability.engine:stream}' == 'interval-tree' "
+        + "or '${reservation.availability.engine:stream}' == 'bitmap'")
+public class IndexedRoomService implements RoomService {
+
+    private RoomRepository roomRepository;
+
+    private AvailabilityIndex availabilityIndex;
+
+    private RoomAssignmentStrategy roomAssignmentStrategy;
+
+    public IndexedRoomService(RoomRepository roomRepository, AvailabilityIndex availabilityIndex,
+                              RoomAssignmentStrategy roomAssignmentStrategy) {
+        this.roomRepository = roomRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.roomAssignmentStrategy = roomAssignmentStrategy;
+    }
+
+    @Override
+    public boolean areDatesAvailableInCurrentRoom(Reservation reservation) {
+        return availabilityIndex.isAvailable(reservation.getRoom().getId(),
+                reservation.getStartDate(), reservation.getEndDate(), reservation.getId());
+    }
+
+    @Override
+    public Optional<Room> assignRoom(Reservation reservation) {
+        RoomType roomType = RoomType.getFittingSize(reservation.getNumberOfPeople());
+        Optional<List<Long>> preferredOrder = roomAssignmentStrategy.preferredOrder(roomType);
+        if (preferredOrder.isPresent()) {
+            // Rooms missing from the order are only considered when every
+            // room in it is taken.
+            Optional<Room> preferred = preferredOrder.get().stream()
+                    .filter(roomId -> availabilityIndex.isAvailable(roomId,
+                            reservation.getStartDate(), reservation.getEndDate(), null))
+                    .findFirst()
+                    .flatMap(roomRepository::findById);
+            return preferred.isPresent() ? preferred : findAvailableRooms(reservation).stream().findFirst();
+        }
+        if (roomAssignmentStrategy.needsAllCandidates()) {
+            return findAvailableRooms(reservation).stream().findFirst();
+        }
+
+        return availabilityIndex.findFirstAvailableRoom(roomType,
+                reservation.getStartDate(), reservation.getEndDate())
+                .flatMap(roomRepository::findById);
+    }
+
+    @Override
+    public List<Room> findAvailableRooms(Reservation reservation) {
+        RoomType roomType = RoomType.getFittingSize(reservation.getNumberOfPeople());
+
+        List<Long> roomIds = availabilityIndex.findAvailableRooms(roomType,
+                reservation.getStartDate(), reservation.getEndDate());
+        Map<Long, Room> rooms = StreamSupport.stream(roomRepository.findAllById(roomIds).spliterator(), false)
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+
+        List<Room> availableRooms = roomIds.stream()
+                .map(rooms::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return roomAssignmentStrategy.order(availableRooms, reservation);
+    }
+}
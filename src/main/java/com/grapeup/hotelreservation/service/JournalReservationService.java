@@ -0,0 +1,335 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.converter.ReservationConverter;
+import com.grapeup.hotelreservation.dto.ReservationDto;
+import com.grapeup.hotelreservation.event.ReservationDeletedEvent;
+import com.grapeup.hotelreservation.event.ReservationSavedEvent;
+import com.grapeup.hotelreservation.exception.AvailableRoomNotFoundException;
+import com.grapeup.hotelreservation.journal.JournalEntry;
+import com.grapeup.hotelreservation.journal.ReservationJournal;
+import com.grapeup.hotelreservation.journal.ReservationSnapshot;
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.repository.ReservationArchiveRepository;
+import com.grapeup.hotelreservation.repository.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps all reservations in memory and makes every change durable by
+ * appending it to a memory-mapped journal before applying it. Every
+ * {@code reservation.journal.snapshot-every} entries the state is written to
+ * a snapshot and the journal is emptied; on start the snapshot is loaded and
+ * the journal tail replayed.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "reservation.persistence.mode", havingValue = "journal")
+public class JournalReservationService implements ReservationService {
+
+    private static final String JOURNAL_FILE = "reservations.journal";
+    private static final String SNAPSHOT_FILE = "reservations.snapshot";
+
+    private RoomService roomService;
+
+    private AvailabilityIndex availabilityIndex;
+
+    private ReservationLocks reservationLocks;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private ReservationRepository reservationRepository;
+
+    private ReservationArchiveRepository reservationArchiveRepository;
+
+    private Path directory;
+
+    private int initialJournalSize;
+
+    private boolean sync;
+
+    private int snapshotEvery;
+
+    private final ConcurrentNavigableMap<Long, Reservation> reservations = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    private final Object writeLock = new Object();
+
+    private ReservationJournal journal;
+
+    private int entriesSinceSnapshot;
+
+    public JournalReservationService(RoomService roomService,
+                                     AvailabilityIndex availabilityIndex,
+                                     ReservationLocks reservationLocks,
+                                     ApplicationEventPublisher eventPublisher,
+                                     ReservationRepository reservationRepository,
+                                     ReservationArchiveRepository reservationArchiveRepository,
+                                     @Value("${reservation.journal.directory:journal}") String directory,
+                                     @Value("${reservation.journal.initial-size:16777216}") int initialJournalSize,
+                                     @Value("${reservation.journal.sync:true}") boolean sync,
+                                     @Value("${reservation.journal.snapshot-every:10000}") int snapshotEvery) {
+        this.roomService = roomService;
+        this.availabilityIndex = availabilityIndex;
+        this.reservationLocks = reservationLocks;
+        this.eventPublisher = eventPublisher;
+        this.reservationRepository = reservationRepository;
+        this.reservationArchiveRepository = reservationArchiveRepository;
+        this.directory = Paths.get(directory);
+        this.initialJournalSize = initialJournalSize;
+        this.sync = sync;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        if (!(roomService instanceof IndexedRoomService)) {
+            throw new IllegalStateException("The journal store needs "
+                    + "reservation.availability.engine=bitmap or interval-tree");
+        }
+        // Ids continue after the reservation table's, so a journal reservation
+        // never shares an id with a row written by the JPA store.
+        reservationRepository.findMaxId().ifPresent(id -> nextId.accumulateAndGet(id + 1, Math::max));
+        reservationArchiveRepository.findMaxId().ifPresent(id -> nextId.accumulateAndGet(id + 1, Math::max));
+
+        Optional<ReservationSnapshot> snapshot = ReservationSnapshot.read(directory.resolve(SNAPSHOT_FILE));
+        snapshot.ifPresent(s -> s.getReservations().forEach(this::applyPut));
+
+        journal = new ReservationJournal(directory.resolve(JOURNAL_FILE), initialJournalSize, sync);
+        journal.replay(snapshot.map(ReservationSnapshot::getSequence).orElse(0L), this::applyEntry);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            snapshot();
+            journal.close();
+        }
+    }
+
+    @Override
+    public List<Reservation> findAll() {
+        return reservations.values().stream()
+                .map(JournalReservationService::copyOf)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Reservation> findById(Long id) {
+        return Optional.ofNullable(reservations.get(id)).map(JournalReservationService::copyOf);
+    }
+
+    @Override
+    public Optional<Reservation> findByIdIncludingArchived(Long id) {
+        return findById(id);
+    }
+
+    @Override
+    public Reservation save(Reservation reservation) {
+        return reservationLocks.withLock(reservation, () -> saveWithAssignedRoom(reservation));
+    }
+
+    @Override
+    public List<Optional<Reservation>> saveAll(List<Reservation> reservations) {
+        return reservationLocks.withLock(reservations, () -> {
+            List<Optional<Reservation>> saved = new ArrayList<>(reservations.size());
+            for (Reservation reservation : reservations) {
+                try {
+                    saved.add(Optional.of(saveWithAssignedRoom(reservation)));
+                } catch (AvailableRoomNotFoundException e) {
+                    saved.add(Optional.empty());
+                }
+            }
+            return saved;
+        });
+    }
+
+    @Override
+    public Optional<Reservation> update(Reservation reservation, Reservation existingReservation) {
+        return withStoredLocked(reservation.getId(), reservation, stored -> {
+            if (stored == null) {
+                return Optional.empty();
+            }
+            boolean sameRoomType = RoomType.getFittingSize(reservation.getNumberOfPeople())
+                    == RoomType.getFittingSize(stored.getNumberOfPeople());
+            if (!sameRoomType || !roomService.areDatesAvailableInCurrentRoom(reservation)) {
+                reservation.setRoom(roomService.assignRoom(reservation)
+                        .orElseThrow(AvailableRoomNotFoundException::new));
+            }
+            record(copyOf(reservation));
+            return Optional.of(reservation);
+        });
+    }
+
+    @Override
+    public void delete(Long id) {
+        if (id == null) {
+            return;
+        }
+        boolean deleted = withStoredLocked(id, null, stored -> {
+            if (stored == null) {
+                return false;
+            }
+            synchronized (writeLock) {
+                journal.appendDelete(id);
+                applyDelete(id);
+                snapshotIfDue();
+            }
+            return true;
+        });
+        if (deleted) {
+            eventPublisher.publishEvent(new ReservationDeletedEvent(id));
+        }
+    }
+
+    @Override
+    public List<Reservation> findForRoom(Long roomId) {
+        return forRoom(reservations.values().stream(), roomId)
+                .map(JournalReservationService::copyOf)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ReservationDto> findAllDtos() {
+        return reservations.values().stream()
+                .map(ReservationConverter::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void exportDtos(Consumer<ReservationDto> action) {
+        reservations.values().stream()
+                .map(ReservationConverter::toDto)
+                .forEach(action);
+    }
+
+    // Journal entries are durable as soon as they are appended.
+    @Override
+    public boolean joinsCallerTransaction() {
+        return false;
+    }
+
+    private Reservation saveWithAssignedRoom(Reservation reservation) {
+        Room room = roomService.assignRoom(reservation).orElseThrow(AvailableRoomNotFoundException::new);
+        reservation.setId(nextId.getAndIncrement());
+        reservation.setRoom(room);
+        record(copyOf(reservation));
+        return reservation;
+    }
+
+    // Runs the action holding the stripes of the stored reservation and of
+    // its replacement, the ones save takes for the same dates. The stored
+    // reservation can change while the stripes are taken; then they are
+    // taken again for the new one.
+    private <T> T withStoredLocked(Long id, Reservation replacement, Function<Reservation, T> action) {
+        while (true) {
+            Reservation stored = reservations.get(id);
+            List<Reservation> locked = new ArrayList<>(2);
+            if (replacement != null) {
+                locked.add(replacement);
+            }
+            if (stored != null) {
+                locked.add(stored);
+            }
+            AtomicBoolean unchanged = new AtomicBoolean();
+            T result = reservationLocks.withLock(locked, () -> {
+                if (reservations.get(id) != stored) {
+                    return null;
+                }
+                unchanged.set(true);
+                return action.apply(stored);
+            });
+            if (unchanged.get()) {
+                return result;
+            }
+        }
+    }
+
+    // The entry is durable before the change becomes visible to readers.
+    private void record(Reservation reservation) {
+        synchronized (writeLock) {
+            journal.appendPut(reservation);
+            applyPut(reservation);
+            snapshotIfDue();
+        }
+        eventPublisher.publishEvent(new ReservationSavedEvent(ReservationConverter.toDto(reservation)));
+    }
+
+    private void applyEntry(JournalEntry entry) {
+        if (entry.getType() == JournalEntry.Type.PUT) {
+            applyPut(entry.getReservation());
+        } else {
+            applyDelete(entry.getReservationId());
+        }
+    }
+
+    private void applyPut(Reservation reservation) {
+        reservations.put(reservation.getId(), reservation);
+        availabilityIndex.book(reservation.getId(), reservation.getRoom().getId(),
+                reservation.getStartDate(), reservation.getEndDate());
+        nextId.accumulateAndGet(reservation.getId() + 1, Math::max);
+    }
+
+    private void applyDelete(Long id) {
+        reservations.remove(id);
+        availabilityIndex.release(id);
+    }
+
+    private void snapshotIfDue() {
+        if (++entriesSinceSnapshot >= snapshotEvery) {
+            snapshot();
+        }
+    }
+
+    // A failed snapshot loses nothing, the journal still holds every entry,
+    // so it is retried with the next write.
+    private void snapshot() {
+        try {
+            ReservationSnapshot.write(directory.resolve(SNAPSHOT_FILE), journal.getLastSequence(),
+                    reservations.values());
+            journal.truncate();
+            entriesSinceSnapshot = 0;
+        } catch (IOException e) {
+            log.warn("Could not write reservation snapshot", e);
+        }
+    }
+
+    private static Stream<Reservation> forRoom(Stream<Reservation> reservations, Long roomId) {
+        return reservations.filter(reservation -> Objects.equals(reservation.getRoom().getId(), roomId));
+    }
+
+    private static Reservation copyOf(Reservation reservation) {
+        return Reservation.builder()
+                .id(reservation.getId())
+                .username(reservation.getUsername())
+                .numberOfPeople(reservation.getNumberOfPeople())
+                .startDate(reservation.getStartDate())
+                .endDate(reservation.getEndDate())
+                .room(Room.builder().id(reservation.getRoom().getId()).build())
+                .build();
+    }
+}
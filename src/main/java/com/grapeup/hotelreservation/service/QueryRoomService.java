@@ -0,0 +1,60 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.repository.ReservationRepository;
+import com.grapeup.hotelreservation.repository.RoomRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@ConditionalOnProperty(name = "reservation.availability.engine", havingValue = "sql")
+public class QueryRoomService implements RoomService {
+
+    private RoomRepository roomRepository;
+
+    private ReservationRepository reservationRepository;
+
+    private RoomAssignmentStrategy roomAssignmentStrategy;
+
+    public QueryRoomService(RoomRepository roomRepository,
+                            ReservationRepository reservationRepository,
+                            RoomAssignmentStrategy roomAssignmentStrategy) {
+        this.roomRepository = roomRepository;
+        this.reservationRepository = reservationRepository;
+        this.roomAssignmentStrategy = roomAssignmentStrategy;
+    }
+
+    @Override
+    public boolean areDatesAvailableInCurrentRoom(Reservation reservation) {
+        return !reservationRepository.existsOverlapping(reservation.getRoom().getId(),
+                reservation.getId(), reservation.getStartDate(), reservation.getEndDate());
+    }
+
+    @Override
+    public Optional<Room> assignRoom(Reservation reservation) {
+        if (roomAssignmentStrategy.needsAllCandidates()) {
+            return findAvailableRooms(reservation).stream().findFirst();
+        }
+        RoomType roomType = RoomType.getFittingSize(reservation.getNumberOfPeople());
+
+        return roomRepository.findAvailableRooms(roomType, reservation.getStartDate(),
+                reservation.getEndDate(), PageRequest.of(0, 1)).stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<Room> findAvailableRooms(Reservation reservation) {
+        RoomType roomType = RoomType.getFittingSize(reservation.getNumberOfPeople());
+
+        List<Room> availableRooms = roomRepository.findAvailableRooms(roomType,
+                reservation.getStartDate(), reservation.getEndDate(), Pageable.unpaged());
+        return roomAssignmentStrategy.order(availableRooms, reservation);
+    }
+}
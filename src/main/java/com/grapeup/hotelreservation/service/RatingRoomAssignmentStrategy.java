@@ -0,0 +1,40 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.model.RoomType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "reservation.assignment.strategy", havingValue = "rating")
+public class RatingRoomAssignmentStrategy implements RoomAssignmentStrategy {
+
+    private RoomRatingRanking roomRatingRanking;
+
+    public RatingRoomAssignmentStrategy(RoomRatingRanking roomRatingRanking) {
+        this.roomRatingRanking = roomRatingRanking;
+    }
+
+    // Uses the precomputed ranking only; the rating service is never called
+    // while a booking is being placed.
+    @Override
+    public List<Room> order(List<Room> availableRooms, Reservation reservation) {
+        if (availableRooms.size() < 2) {
+            return availableRooms;
+        }
+        return availableRooms.stream()
+                .sorted(Comparator.comparingInt(room -> roomRatingRanking.rankOf(room.getId())))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<List<Long>> preferredOrder(RoomType roomType) {
+        return Optional.of(roomRatingRanking.order(roomType));
+    }
+}
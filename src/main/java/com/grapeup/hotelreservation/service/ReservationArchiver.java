@@ -0,0 +1,84 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.event.ReservationDeletedEvent;
+import com.grapeup.hotelreservation.repository.ReservationArchiveRepository;
+import com.grapeup.hotelreservation.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Moves ended stays from the reservation table to the archive. The journal
+ * store does not keep its reservations in that table, so the archiver is
+ * not created for it.
+ */
+@Component
+@ConditionalOnExpression("${reservation.archive.enabled:false} "
+        + "and '${reservation.persistence.mode:jpa}' != 'journal'")
+public class ReservationArchiver {
+
+    private ReservationRepository reservationRepository;
+
+    private ReservationArchiveRepository reservationArchiveRepository;
+
+    private AvailabilityIndex availabilityIndex;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private int batchSize;
+
+    public ReservationArchiver(ReservationRepository reservationRepository,
+                               ReservationArchiveRepository reservationArchiveRepository,
+                               AvailabilityIndex availabilityIndex,
+                               TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${reservation.archive.batch-size:500}") int batchSize) {
+        this.reservationRepository = reservationRepository;
+        this.reservationArchiveRepository = reservationArchiveRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${reservation.archive.interval-ms:3600000}",
+            fixedDelayString = "${reservation.archive.interval-ms:3600000}")
+    public void archivePastReservations() {
+        archiveEndedBefore(LocalDate.now());
+    }
+
+    // Stays that ended before the cutoff can never overlap a new booking, so
+    // they are moved out of the hot table in short transactions.
+    public int archiveEndedBefore(LocalDate cutoff) {
+        int archived = 0;
+        List<Long> ids;
+        do {
+            ids = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            for (Long id : ids) {
+                availabilityIndex.release(id);
+                eventPublisher.publishEvent(new ReservationDeletedEvent(id));
+            }
+            archived += ids.size();
+        } while (ids.size() == batchSize);
+        return archived;
+    }
+
+    private List<Long> archiveBatch(LocalDate cutoff) {
+        List<Long> ids = reservationRepository.findIdsEndingBefore(cutoff, PageRequest.of(0, batchSize));
+        if (!ids.isEmpty()) {
+            reservationArchiveRepository.copyFromReservations(ids);
+            reservationRepository.deleteByIds(ids);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,311 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.dto.ReservationDto;
+import com.grapeup.hotelreservation.dto.ReservationImportDto;
+import com.grapeup.hotelreservation.exception.IncorrectCsvHeaderException;
+import com.grapeup.hotelreservation.exception.IncorrectNumberOfPeopleException;
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.ReservationImport;
+import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.repository.ReservationImportRepository;
+import com.grapeup.hotelreservation.validator.DatesValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Imports reservations from CSV with the columns username, numberOfPeople,
+ * startDate and endDate. The input is read line by line and written in
+ * chunks; every chunk commits together with the import's progress row, so
+ * running the same import id again continues after the last committed chunk.
+ * Stores that commit every booking on their own, the journal and room-night
+ * stores, cannot share that transaction: there every row is a chunk of its
+ * own, and an import interrupted between a booking and its progress row
+ * writes that one row again when it is resumed.
+ */
+@Slf4j
+@Component
+public class ReservationImporter {
+
+    private static final List<String> COLUMNS = List.of("username", "numberOfPeople", "startDate", "endDate");
+    private static final String DATES_MESSAGE = "Reservation start date should be before end date";
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final DatesValidator datesValidator = new DatesValidator();
+
+    private ReservationService reservationService;
+
+    private ReservationImportRepository reservationImportRepository;
+
+    private ReservationLocks reservationLocks;
+
+    private AvailabilityIndex availabilityIndex;
+
+    private TransactionTemplate transactionTemplate;
+
+    private int chunkSize;
+
+    public ReservationImporter(ReservationService reservationService,
+                               ReservationImportRepository reservationImportRepository,
+                               ReservationLocks reservationLocks,
+                               AvailabilityIndex availabilityIndex,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${reservation.import.chunk-size:500}") int chunkSize) {
+        this.reservationService = reservationService;
+        this.reservationImportRepository = reservationImportRepository;
+        this.reservationLocks = reservationLocks;
+        this.availabilityIndex = availabilityIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    public Optional<ReservationImportDto> findImport(String importId) {
+        return reservationImportRepository.findById(importId)
+                .map(progress -> toDto(progress, List.of()));
+    }
+
+    public ReservationImportDto importCsv(String importId, Reader source) throws IOException {
+        ReservationImport progress = reservationImportRepository.findById(importId)
+                .orElseGet(() -> ReservationImport.builder().id(importId).build());
+        long committedRows = progress.getProcessedRows();
+        List<String> errors = new ArrayList<>();
+
+        int rowsPerChunk = reservationService.joinsCallerTransaction() ? chunkSize : 1;
+        BufferedReader reader = new BufferedReader(source);
+        int[] columns = readHeader(reader.readLine());
+        Chunk chunk = new Chunk();
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            if (row <= committedRows) {
+                continue;
+            }
+
+            List<String> rowErrors = new ArrayList<>();
+            List<String> fields = split(line, rowErrors);
+            Reservation reservation = fields != null ? parse(fields, columns, rowErrors) : null;
+            if (rowErrors.isEmpty()) {
+                chunk.add(row, reservation);
+            } else {
+                chunk.reject(row);
+                for (String error : rowErrors) {
+                    report(errors, "row " + row + ": " + error);
+                }
+            }
+
+            if (chunk.size() == rowsPerChunk) {
+                progress = commit(progress, chunk, false, errors);
+                chunk = new Chunk();
+            }
+        }
+        progress = commit(progress, chunk, true, errors);
+        return toDto(progress, errors);
+    }
+
+    // The chunk joins one transaction with the progress row. The stripe locks
+    // are held until it commits, as a single booking holds them.
+    private ReservationImport commit(ReservationImport progress, Chunk chunk, boolean completed,
+                                     List<String> errors) {
+        List<Optional<Reservation>> saved = new ArrayList<>();
+        ReservationImport committed;
+        if (reservationService.joinsCallerTransaction()) {
+            try {
+                committed = reservationLocks.withLock(chunk.reservations, () -> transactionTemplate.execute(
+                        status -> recordProgress(progress, chunk, save(chunk, saved), completed, errors)));
+            } catch (RuntimeException e) {
+                saved.forEach(reservation -> reservation.ifPresent(r -> availabilityIndex.release(r.getId())));
+                throw e;
+            }
+        } else {
+            reservationLocks.withLock(chunk.reservations, () -> save(chunk, saved));
+            committed = transactionTemplate.execute(
+                    status -> recordProgress(progress, chunk, saved, completed, errors));
+        }
+
+        log.info("Import {}: {} rows processed, {} imported, {} rejected", committed.getId(),
+                committed.getProcessedRows(), committed.getImportedRows(), committed.getRejectedRows());
+        return committed;
+    }
+
+    private List<Optional<Reservation>> save(Chunk chunk, List<Optional<Reservation>> saved) {
+        if (!chunk.reservations.isEmpty()) {
+            saved.addAll(reservationService.saveAll(chunk.reservations));
+        }
+        return saved;
+    }
+
+    private ReservationImport recordProgress(ReservationImport progress, Chunk chunk,
+                                             List<Optional<Reservation>> saved, boolean completed,
+                                             List<String> errors) {
+        int unavailable = 0;
+        for (int i = 0; i < saved.size(); i++) {
+            if (saved.get(i).isEmpty()) {
+                unavailable++;
+                report(errors, "row " + chunk.rows.get(i) + ": No rooms available");
+            }
+        }
+        progress.setProcessedRows(Math.max(progress.getProcessedRows(), chunk.lastRow));
+        progress.setImportedRows(progress.getImportedRows() + saved.size() - unavailable);
+        progress.setRejectedRows(progress.getRejectedRows() + chunk.rejected + unavailable);
+        progress.setCompleted(completed);
+        return reservationImportRepository.save(progress);
+    }
+
+    private int[] readHeader(String header) {
+        if (header == null) {
+            throw new IncorrectCsvHeaderException("Missing header, expected " + String.join(",", COLUMNS));
+        }
+        List<String> names = new ArrayList<>();
+        List<String> fields = split(header, new ArrayList<>());
+        if (fields != null) {
+            fields.forEach(name -> names.add(name.trim()));
+        }
+        int[] columns = new int[COLUMNS.size()];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            columns[i] = names.indexOf(COLUMNS.get(i));
+            if (columns[i] < 0) {
+                throw new IncorrectCsvHeaderException("Missing column " + COLUMNS.get(i));
+            }
+        }
+        return columns;
+    }
+
+    // Applies the same rules as DatesValidator and RoomType.getFittingSize;
+    // the @Future constraints are left out, since historical bookings are
+    // imported as well.
+    private Reservation parse(List<String> fields, int[] columns, List<String> errors) {
+        String username = field(fields, columns[0]);
+        if (username.isEmpty()) {
+            errors.add("username: must not be empty");
+        }
+        Integer numberOfPeople = null;
+        try {
+            numberOfPeople = Integer.valueOf(field(fields, columns[1]));
+            RoomType.getFittingSize(numberOfPeople);
+        } catch (NumberFormatException e) {
+            errors.add("numberOfPeople: not a number");
+        } catch (IncorrectNumberOfPeopleException e) {
+            errors.add("numberOfPeople: " + e.getMessage());
+        }
+        LocalDate startDate = date(field(fields, columns[2]), "startDate", errors);
+        LocalDate endDate = date(field(fields, columns[3]), "endDate", errors);
+        if (!errors.isEmpty()) {
+            return null;
+        }
+
+        ReservationDto reservation = ReservationDto.builder().username(username)
+                .numberOfPeople(numberOfPeople).startDate(startDate).endDate(endDate).build();
+        if (!datesValidator.isValid(reservation, null)) {
+            errors.add(DATES_MESSAGE);
+            return null;
+        }
+        return Reservation.builder().username(username).numberOfPeople(numberOfPeople)
+                .startDate(startDate).endDate(endDate).build();
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column < fields.size() ? fields.get(column).trim() : "";
+    }
+
+    // Splits a record as RFC 4180 does: a field may be quoted to hold commas,
+    // and a quote inside it is doubled. Records spanning lines are rejected.
+    private static List<String> split(String line, List<String> errors) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && field.toString().isBlank()) {
+                field.setLength(0);
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            errors.add("unterminated quoted field");
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static LocalDate date(String value, String name, List<String> errors) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            errors.add(name + ": not an ISO date");
+            return null;
+        }
+    }
+
+    private static void report(List<String> errors, String error) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    private static ReservationImportDto toDto(ReservationImport progress, List<String> errors) {
+        return ReservationImportDto.builder()
+                .importId(progress.getId())
+                .processedRows(progress.getProcessedRows())
+                .importedRows(progress.getImportedRows())
+                .rejectedRows(progress.getRejectedRows())
+                .completed(progress.isCompleted())
+                .errors(errors)
+                .build();
+    }
+
+    private static class Chunk {
+
+        private final List<Reservation> reservations = new ArrayList<>();
+
+        private final List<Long> rows = new ArrayList<>();
+
+        private int rejected;
+
+        private long lastRow;
+
+        private void add(long row, Reservation reservation) {
+            reservations.add(reservation);
+            rows.add(row);
+            lastRow = row;
+        }
+
+        private void reject(long row) {
+            rejected++;
+            lastRow = row;
+        }
+
+        private int size() {
+            return reservations.size() + rejected;
+        }
+    }
+}
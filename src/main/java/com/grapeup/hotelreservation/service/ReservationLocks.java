@@ -0,0 +1,71 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.RoomType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class ReservationLocks {
+
+    private static final int DAYS_IN_BUCKET = 7;
+
+    private final Lock[] stripes;
+
+    public ReservationLocks(@Value("${reservation.locks.stripes:64}") int stripes) {
+        this.stripes = new Lock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(Reservation reservation, Supplier<T> action) {
+        return withLock(Collections.singletonList(reservation), action);
+    }
+
+    // Stripes are always taken in ascending order, so callers locking
+    // overlapping sets of buckets cannot deadlock each other.
+    public <T> T withLock(Collection<Reservation> reservations, Supplier<T> action) {
+        SortedSet<Integer> stripeIndexes = new TreeSet<>();
+        for (Reservation reservation : reservations) {
+            stripeIndexes.addAll(stripesFor(reservation));
+        }
+
+        Deque<Lock> acquired = new ArrayDeque<>();
+        try {
+            for (Integer index : stripeIndexes) {
+                stripes[index].lock();
+                acquired.push(stripes[index]);
+            }
+            return action.get();
+        } finally {
+            while (!acquired.isEmpty()) {
+                acquired.pop().unlock();
+            }
+        }
+    }
+
+    private SortedSet<Integer> stripesFor(Reservation reservation) {
+        RoomType roomType = RoomType.getFittingSize(reservation.getNumberOfPeople());
+        long firstBucket = Math.floorDiv(reservation.getStartDate().toEpochDay(), DAYS_IN_BUCKET);
+        long lastBucket = Math.floorDiv(reservation.getEndDate().toEpochDay(), DAYS_IN_BUCKET);
+
+        SortedSet<Integer> stripeIndexes = new TreeSet<>();
+        for (long bucket = firstBucket; bucket <= lastBucket
+                && stripeIndexes.size() < stripes.length; bucket++) {
+            long key = bucket * RoomType.values().length + roomType.ordinal();
+            stripeIndexes.add((int) Math.floorMod(key, (long) stripes.length));
+        }
+        return stripeIndexes;
+    }
+}
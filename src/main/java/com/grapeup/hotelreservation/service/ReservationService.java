@@ -1,18 +1,29 @@
 package com.grapeup.hotelreservation.service;
 
+import com.grapeup.hotelreservation.dto.ReservationDto;
 import com.grapeup.hotelreservation.model.Reservation;
 
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ReservationService {
 
     List<Reservation> findAll();
     Optional<Reservation> findById(Long id);
+    Optional<Reservation> findByIdIncludingArchived(Long id);
     Reservation save(Reservation reservation);
+    List<Optional<Reservation>> saveAll(List<Reservation> reservations);
     Optional<Reservation> update(Reservation reservation, Reservation existingReservation);
     void delete(Long id);
     List<Reservation> findForRoom(Long roomId);
+    List<ReservationDto> findAllDtos();
+    void exportDtos(Consumer<ReservationDto> action);
+
+    // Whether writes made inside a caller's transaction commit or roll back
+    // with it. Stores that commit every booking on its own return false.
+    default boolean joinsCallerTransaction() {
+        return true;
+    }
 
 }
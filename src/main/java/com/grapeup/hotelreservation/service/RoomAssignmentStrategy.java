@@ -0,0 +1,26 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.model.RoomType;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RoomAssignmentStrategy {
+
+    List<Room> order(List<Room> availableRooms, Reservation reservation);
+
+    // Strategies that keep the candidates' natural order let room services
+    // stop at the first free room instead of loading every candidate.
+    default boolean needsAllCandidates() {
+        return true;
+    }
+
+    // Strategies whose preference does not depend on the booking return it
+    // here, so room services can walk it and stop at the first free room.
+    default Optional<List<Long>> preferredOrder(RoomType roomType) {
+        return Optional.empty();
+    }
+
+}
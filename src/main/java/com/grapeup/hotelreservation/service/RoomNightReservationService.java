@@ -0,0 +1,140 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.exception.AvailableRoomNotFoundException;
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.repository.ReservationArchiveRepository;
+import com.grapeup.hotelreservation.repository.ReservationRepository;
+import com.grapeup.hotelreservation.repository.RoomNightRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@ConditionalOnProperty(name = "reservation.persistence.mode", havingValue = "room-nights")
+public class RoomNightReservationService extends DefaultReservationService {
+
+    private RoomNightRepository roomNightRepository;
+
+    private TransactionTemplate claimTransaction;
+
+    private EntityManager entityManager;
+
+    public RoomNightReservationService(ReservationRepository reservationRepository,
+                                       RoomService roomService,
+                                       AvailabilityIndex availabilityIndex,
+                                       ReservationLocks reservationLocks,
+                                       RoomNightRepository roomNightRepository,
+                                       TransactionTemplate transactionTemplate,
+                                       EntityManager entityManager,
+                                       ReservationArchiveRepository reservationArchiveRepository,
+                                       ApplicationEventPublisher eventPublisher) {
+        super(reservationRepository, roomService, availabilityIndex, reservationLocks, transactionTemplate,
+                reservationArchiveRepository, eventPublisher);
+        this.roomNightRepository = roomNightRepository;
+        // A rejected claim must not mark a caller's transaction rollback-only,
+        // so every claim commits on its own.
+        this.claimTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.entityManager = entityManager;
+    }
+
+    // Reservations stored before this mode was enabled may overlap, which
+    // the room_night key cannot hold. The others are claimed, and startup
+    // fails listing every overlap so they can be resolved first.
+    @PostConstruct
+    public void claimExistingReservations() {
+        List<String> conflicts = new ArrayList<>();
+        for (Reservation reservation : roomNightRepository.findUnclaimedReservations()) {
+            Long roomId = reservation.getRoom().getId();
+            try {
+                claimTransaction.executeWithoutResult(status -> roomNightRepository.claim(reservation.getId(),
+                        roomId, reservation.getStartDate(), reservation.getEndDate()));
+            } catch (DataIntegrityViolationException e) {
+                conflicts.add("reservation " + reservation.getId() + " overlaps reservations "
+                        + roomNightRepository.findClaimingReservations(roomId,
+                                reservation.getStartDate(), reservation.getEndDate())
+                        + " in room " + roomId);
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException("Existing reservations overlap and cannot be claimed: "
+                    + String.join("; ", conflicts));
+        }
+    }
+
+    @Override
+    public Reservation save(Reservation reservation) {
+        return claimFirstAvailable(reservation, roomService.findAvailableRooms(reservation));
+    }
+
+    // Every item claims its nights in its own transaction, so a conflict on
+    // the room_night key only rejects that item.
+    @Override
+    public List<Optional<Reservation>> saveAll(List<Reservation> reservations) {
+        List<Optional<Reservation>> saved = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            try {
+                saved.add(Optional.of(save(reservation)));
+            } catch (AvailableRoomNotFoundException e) {
+                saved.add(Optional.empty());
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<Reservation> update(Reservation reservation, Reservation existingReservation) {
+        Room currentRoom = reservation.getRoom();
+        List<Room> candidates = new ArrayList<>();
+        if (RoomType.getFittingSize(reservation.getNumberOfPeople())
+                == RoomType.getFittingSize(existingReservation.getNumberOfPeople())) {
+            candidates.add(currentRoom);
+        }
+        roomService.findAvailableRooms(reservation).stream()
+                .filter(room -> !room.getId().equals(currentRoom.getId()))
+                .forEach(candidates::add);
+
+        return Optional.of(claimFirstAvailable(reservation, candidates));
+    }
+
+    @Override
+    public boolean joinsCallerTransaction() {
+        return false;
+    }
+
+    // The room_night primary key rejects a room that another request or
+    // service instance took in the meantime; the next candidate is tried.
+    private Reservation claimFirstAvailable(Reservation reservation, List<Room> candidates) {
+        Long reservationId = reservation.getId();
+        for (Room room : candidates) {
+            try {
+                return index(claimTransaction.execute(status -> claim(reservation, room)));
+            } catch (DataIntegrityViolationException e) {
+                reservation.setId(reservationId);
+            }
+        }
+        throw new AvailableRoomNotFoundException();
+    }
+
+    private Reservation claim(Reservation reservation, Room room) {
+        reservation.setRoom(room);
+        Reservation saved = reservationRepository.save(reservation);
+        entityManager.flush();
+        roomNightRepository.release(saved.getId());
+        roomNightRepository.claim(saved.getId(), room.getId(),
+                saved.getStartDate(), saved.getEndDate());
+        return saved;
+    }
+}
@@ -0,0 +1,99 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.event.RoomRatingsSynchronizedEvent;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.repository.RoomRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Rooms of every type ordered from the highest to the lowest local rating.
+ * The ordering is computed when ratings change, so ranking a booking's free
+ * rooms is a map lookup per room.
+ */
+@Component
+public class RoomRatingRanking {
+
+    private static final Comparator<Room> BY_RATING = Comparator.comparingDouble(Room::getRating).reversed()
+            .thenComparing(Room::getId);
+
+    private RoomRepository roomRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private volatile Ranks ranks = new Ranks(Map.of(), Map.of());
+
+    public RoomRatingRanking(RoomRepository roomRepository, TransactionTemplate transactionTemplate) {
+        this.roomRepository = roomRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void load() {
+        List<Room> rooms = transactionTemplate.execute(status -> {
+            List<Room> loaded = new ArrayList<>();
+            roomRepository.findAll().forEach(loaded::add);
+            return loaded;
+        });
+        rebuild(rooms);
+    }
+
+    @EventListener
+    public void on(RoomRatingsSynchronizedEvent event) {
+        if (event.getChangedRooms() > 0) {
+            rebuild(event.getRooms());
+        }
+    }
+
+    public void rebuild(Iterable<Room> rooms) {
+        Map<RoomType, List<Room>> roomsByType = new EnumMap<>(RoomType.class);
+        rooms.forEach(room -> roomsByType.computeIfAbsent(room.getRoomType(), type -> new ArrayList<>()).add(room));
+
+        Map<RoomType, List<Long>> orderByType = new EnumMap<>(RoomType.class);
+        Map<Long, Integer> rankByRoom = new HashMap<>();
+        roomsByType.forEach((roomType, typeRooms) -> {
+            List<Long> order = typeRooms.stream()
+                    .sorted(BY_RATING)
+                    .map(Room::getId)
+                    .collect(Collectors.toList());
+            for (int i = 0; i < order.size(); i++) {
+                rankByRoom.put(order.get(i), i);
+            }
+            orderByType.put(roomType, Collections.unmodifiableList(order));
+        });
+        ranks = new Ranks(orderByType, rankByRoom);
+    }
+
+    public List<Long> order(RoomType roomType) {
+        return ranks.orderByType.getOrDefault(roomType, List.of());
+    }
+
+    // Rooms added since the last rebuild have no rank yet and come last.
+    public int rankOf(Long roomId) {
+        return ranks.rankByRoom.getOrDefault(roomId, Integer.MAX_VALUE);
+    }
+
+    private static class Ranks {
+
+        private final Map<RoomType, List<Long>> orderByType;
+
+        private final Map<Long, Integer> rankByRoom;
+
+        private Ranks(Map<RoomType, List<Long>> orderByType, Map<Long, Integer> rankByRoom) {
+            this.orderByType = orderByType;
+            this.rankByRoom = rankByRoom;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.api.ResilientRoomRatingServiceClient;
+import com.grapeup.hotelreservation.api.RoomRatingServiceClient;
+import com.grapeup.hotelreservation.dto.RoomRatingDto;
+import com.grapeup.hotelreservation.event.RoomRatingsSynchronizedEvent;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.repository.RoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "reservation.ratings.sync.enabled", havingValue = "true")
+public class RoomRatingSynchronizer {
+
+    private RoomRatingServiceClient roomRatingServiceClient;
+
+    private RoomRepository roomRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    // Talks to rating-service directly: a fallback answer from the resilient
+    // client would be recorded as a fresh synchronization.
+    public RoomRatingSynchronizer(@Qualifier(ResilientRoomRatingServiceClient.REMOTE_CLIENT) RoomRatingServiceClient roomRatingServiceClient,
+                                  RoomRepository roomRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.roomRatingServiceClient = roomRatingServiceClient;
+        this.roomRepository = roomRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(initialDelayString = "${reservation.ratings.sync.interval-ms:300000}",
+            fixedDelayString = "${reservation.ratings.sync.interval-ms:300000}")
+    public void synchronizeRatings() {
+        List<RoomRatingDto> ratings;
+        try {
+            ratings = roomRatingServiceClient.getAll();
+        } catch (RuntimeException e) {
+            log.warn("Room ratings not synchronized, keeping local ratings: {}", e.getMessage());
+            return;
+        }
+        synchronize(ratings);
+    }
+
+    // Only rooms whose rating changed are written; rooms the rating service
+    // does not know keep their last rating. The event is published after
+    // every successful pull, so local copies can report how fresh they are.
+    public int synchronize(List<RoomRatingDto> ratings) {
+        Instant synchronizedAt = Instant.now();
+        Map<Long, Double> ratingByRoom = ratings.stream()
+                .collect(Collectors.toMap(RoomRatingDto::getId, RoomRatingDto::getRating, (first, second) -> second));
+        List<Room> rooms = new ArrayList<>();
+        int changed = transactionTemplate.execute(status -> {
+            int updated = 0;
+            for (Room room : roomRepository.findAll()) {
+                Double rating = ratingByRoom.get(room.getId());
+                if (rating != null && rating != room.getRating()) {
+                    room.setRating(rating);
+                    updated++;
+                }
+                rooms.add(room);
+            }
+            return updated;
+        });
+        if (changed > 0) {
+            log.info("Synchronized {} room ratings", changed);
+        }
+        eventPublisher.publishEvent(new RoomRatingsSynchronizedEvent(rooms, changed, synchronizedAt));
+        return changed;
+    }
+}
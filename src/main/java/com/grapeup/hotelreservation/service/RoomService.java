@@ -3,11 +3,13 @@ package com.grapeup.hotelreservation.service;
 import com.grapeup.hotelreservation.model.Reservation;
 import com.grapeup.hotelreservation.model.Room;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface RoomService {
 
     boolean areDatesAvailableInCurrentRoom(Reservation reservation);
     Optional<Room> assignRoom(Reservation reservation);
+    List<Room> findAvailableRooms(Reservation reservation);
 
 }
@@ -0,0 +1,28 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@ConditionalOnProperty(name = "reservation.assignment.strategy", havingValue = "round-robin")
+public class RoundRobinRoomAssignmentStrategy implements RoomAssignmentStrategy {
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public List<Room> order(List<Room> availableRooms, Reservation reservation) {
+        if (availableRooms.size() < 2) {
+            return availableRooms;
+        }
+        List<Room> rooms = new ArrayList<>(availableRooms);
+        Collections.rotate(rooms, -Math.floorMod(counter.getAndIncrement(), rooms.size()));
+        return rooms;
+    }
+}
@@ -0,0 +1,120 @@
+package com.grapeup.hotelreservation.api;
+
+import com.grapeup.hotelreservation.dto.RoomRatingDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachingRoomRatingServiceClientTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private RoomRatingServiceClient remoteClient;
+
+    private CachingRoomRatingServiceClient client;
+
+    @BeforeEach
+    public void setup() {
+        remoteClient = mock(RoomRatingServiceClient.class);
+        client = new CachingRoomRatingServiceClient(remoteClient, Duration.ofMinutes(10),
+                Duration.ofMinutes(1), 100, Duration.ofMillis(1), 100, nanos::get, Runnable::run);
+    }
+
+    @Test
+    public void shouldCallRemoteServiceOnceForRepeatedLookups() {
+        when(remoteClient.getByRoomId(1L)).thenReturn(Optional.of(new RoomRatingDto(1L, 4.5)));
+
+        client.getByRoomId(1L);
+        Optional<RoomRatingDto> rating = client.getByRoomId(1L);
+
+        assertThat(rating.get().getRating(), is(4.5));
+        verify(remoteClient, times(1)).getByRoomId(1L);
+        verify(remoteClient, never()).getByRoomIds(any());
+    }
+
+    @Test
+    public void shouldRefreshEntryOlderThanRefreshInterval() {
+        when(remoteClient.getByRoomId(1L)).thenReturn(Optional.of(new RoomRatingDto(1L, 4.5)),
+                Optional.of(new RoomRatingDto(1L, 3.0)));
+
+        client.getByRoomId(1L);
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        client.getByRoomId(1L);
+
+        assertThat(client.getByRoomId(1L).get().getRating(), is(3.0));
+        verify(remoteClient, times(2)).getByRoomId(1L);
+    }
+
+    @Test
+    public void shouldServeCurrentEntryWhileRefreshPoolIsFull() {
+        AtomicBoolean full = new AtomicBoolean();
+        Executor refreshPool = task -> {
+            if (full.get()) {
+                throw new RejectedExecutionException();
+            }
+            task.run();
+        };
+        client = new CachingRoomRatingServiceClient(remoteClient, Duration.ofMinutes(10),
+                Duration.ofMinutes(1), 100, Duration.ofMillis(1), 100, nanos::get, refreshPool);
+        when(remoteClient.getByRoomId(1L)).thenReturn(Optional.of(new RoomRatingDto(1L, 4.5)),
+                Optional.of(new RoomRatingDto(1L, 3.0)));
+
+        client.getByRoomId(1L);
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        full.set(true);
+
+        assertThat(client.getByRoomId(1L).get().getRating(), is(4.5));
+        verify(remoteClient, times(1)).getByRoomId(1L);
+
+        full.set(false);
+        client.getByRoomId(1L);
+
+        assertThat(client.getByRoomId(1L).get().getRating(), is(3.0));
+        verify(remoteClient, times(2)).getByRoomId(1L);
+    }
+
+    @Test
+    public void shouldFillRoomEntriesWhenLoadingAllRatings() {
+        when(remoteClient.getAll()).thenReturn(List.of(new RoomRatingDto(1L, 4.5), new RoomRatingDto(2L, 3.5)));
+
+        assertThat(client.getAll(), hasSize(2));
+        assertThat(client.getAll(), hasSize(2));
+        assertThat(client.getByRoomId(2L).get().getRating(), is(3.5));
+
+        verify(remoteClient, times(1)).getAll();
+        verify(remoteClient, never()).getByRoomIds(any());
+    }
+
+    @Test
+    public void shouldLoadMissingRoomsWithOneBatchCall() {
+        when(remoteClient.getByRoomIds(any())).thenReturn(List.of(new RoomRatingDto(1L, 4.5),
+                new RoomRatingDto(3L, 2.5)));
+
+        List<RoomRatingDto> ratings = client.getByRoomIds(List.of(3L, 2L, 1L));
+
+        assertThat(ratings.stream().map(RoomRatingDto::getId).collect(Collectors.toList()), contains(3L, 1L));
+        verify(remoteClient, times(1)).getByRoomIds(Set.of(1L, 2L, 3L));
+        assertThat(client.getByRoomId(2L).isPresent(), is(false));
+        verify(remoteClient, times(1)).getByRoomIds(any());
+    }
+}
@@ -0,0 +1,71 @@
+package com.grapeup.hotelreservation.api;
+
+import com.grapeup.hotelreservation.controller.RatingController;
+import com.grapeup.hotelreservation.dto.RoomRatingDto;
+import com.grapeup.hotelreservation.service.RoomRatingSynchronizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {"reservation.ratings.source=local", "reservation.ratings.sync.enabled=true"})
+@AutoConfigureMockMvc
+@DirtiesContext
+public class LocalRoomRatingServiceClientTest {
+
+    @Autowired
+    private RoomRatingSynchronizer roomRatingSynchronizer;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void shouldServeRatingsFromLocalCopyWithSynchronizationTime() throws Exception {
+        mockMvc.perform(get("/ratings"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(RatingController.SYNCHRONIZED_AT_HEADER))
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].rating", is(4.5)));
+
+        roomRatingSynchronizer.synchronize(List.of(new RoomRatingDto(2L, 4.9), new RoomRatingDto(99L, 1.0)));
+
+        mockMvc.perform(get("/ratings/{roomId}", 2))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(RatingController.SYNCHRONIZED_AT_HEADER))
+                .andExpect(jsonPath("$.rating", is(4.9)));
+        mockMvc.perform(get("/ratings?roomIds={roomIds}", "2,3,99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].rating", is(3.5)));
+        mockMvc.perform(get("/ratings/{roomId}", 99))
+                .andExpect(status().isNotFound())
+                .andExpect(header().exists(RatingController.SYNCHRONIZED_AT_HEADER));
+
+        MvcResult result = mockMvc.perform(get("/ratings/async/{roomId}", 2)).andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(RatingController.SYNCHRONIZED_AT_HEADER))
+                .andExpect(jsonPath("$.rating", is(4.9)));
+        result = mockMvc.perform(get("/ratings/async")).andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(RatingController.SYNCHRONIZED_AT_HEADER))
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.grapeup.hotelreservation.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MicroBatcherTest {
+
+    private final List<Set<Long>> batches = new CopyOnWriteArrayList<>();
+
+    private MicroBatcher<Long, String> batcher;
+
+    @AfterEach
+    public void tearDown() {
+        batcher.close();
+    }
+
+    @Test
+    public void shouldLoadKeysRequestedWithinWindowInOneBatch() throws Exception {
+        batcher = new MicroBatcher<>(recording(ids -> ids.stream()
+                .filter(id -> id != 3L)
+                .collect(Collectors.toMap(Function.identity(), id -> "rating " + id))),
+                Duration.ofMillis(50), 100);
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            results.add(batcher.submit(id));
+        }
+        results.add(batcher.submit(1L));
+
+        assertThat(results.get(0).get(), is("rating 1"));
+        assertThat(results.get(1).get(), is("rating 2"));
+        assertThat(results.get(2).get(), is(nullValue()));
+        assertThat(results.get(3).get(), is("rating 1"));
+        assertThat(batches, contains(Set.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    public void shouldSendBatchAsSoonAsItIsFull() {
+        batcher = new MicroBatcher<>(recording(ids -> ids.stream()
+                .collect(Collectors.toMap(Function.identity(), id -> "rating " + id))),
+                Duration.ofMinutes(1), 2);
+
+        Map<Long, String> ratings = batcher.loadAll(List.of(1L, 2L));
+
+        assertThat(ratings.get(2L), is("rating 2"));
+        assertThat(batches, hasSize(1));
+    }
+
+    @Test
+    public void shouldFailEveryKeyOfFailedBatch() {
+        batcher = new MicroBatcher<>(recording(ids -> {
+            throw new IllegalStateException("rating-service down");
+        }), Duration.ofMillis(10), 100);
+
+        CompletableFuture<String> first = batcher.submit(1L);
+        CompletableFuture<String> second = batcher.submit(2L);
+
+        for (CompletableFuture<String> result : List.of(first, second)) {
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+        }
+        assertThat(batches, hasSize(1));
+    }
+
+    private Function<Set<Long>, Map<Long, String>> recording(Function<Set<Long>, Map<Long, String>> loader) {
+        return ids -> {
+            batches.add(Set.copyOf(ids));
+            return loader.apply(ids);
+        };
+    }
+}
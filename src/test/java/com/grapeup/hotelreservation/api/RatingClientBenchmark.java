@@ -0,0 +1,94 @@
+package com.grapeup.hotelreservation.api;
+
+import com.grapeup.hotelreservation.dto.RoomRatingDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+/**
+ * Sends the same load through the blocking and the asynchronous rating
+ * client with a fixed pool standing in for the servlet threads, while the
+ * stub rating-service answers every call after a fixed delay.
+ */
+@Tag("benchmark")
+public class RatingClientBenchmark {
+
+    private static final int REQUEST_THREADS = 20;
+    private static final int REQUESTS = 400;
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(100);
+
+    @Test
+    public void shouldServeMoreRequestsPerSecondWithAsynchronousClient() throws Exception {
+        try (StubRatingServer server = new StubRatingServer()) {
+            server.addRating(new RoomRatingDto(1L, 4.5));
+            server.setLatency(UPSTREAM_LATENCY);
+
+            RoomRatingServiceClient blockingClient = server.client();
+            ResilientRoomRatingServiceClient resilientClient = new ResilientRoomRatingServiceClient(blockingClient,
+                    new SimpleMeterRegistry(), Duration.ofSeconds(10), REQUEST_THREADS,
+                    new RatingCircuitBreaker(REQUESTS, Duration.ofSeconds(30), Clock.systemUTC()));
+            AsyncRoomRatingServiceClient asyncClient = new AsyncRoomRatingServiceClient(server::baseUri,
+                    HttpClient.newHttpClient(), Jackson2ObjectMapperBuilder.json().build(), Duration.ofSeconds(10),
+                    resilientClient);
+
+            System.out.printf("%-10s %12s %12s %22s%n", "client", "time [ms]", "req/s", "thread busy time [ms]");
+            double blocking = run("blocking", () -> {
+                blockingClient.getByRoomId(1L);
+                return CompletableFuture.completedFuture(null);
+            });
+            double async = run("async", () -> asyncClient.getByRoomId(1L));
+
+            resilientClient.close();
+
+            assertThat(async, greaterThan(blocking * 3));
+        }
+    }
+
+    private double run(String name, Call call) throws Exception {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        AtomicLong busyNanos = new AtomicLong();
+        try {
+            long start = System.nanoTime();
+            List<Future<CompletableFuture<?>>> submitted = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                submitted.add(requestThreads.submit(() -> {
+                    long taken = System.nanoTime();
+                    CompletableFuture<?> response = call.execute();
+                    busyNanos.addAndGet(System.nanoTime() - taken);
+                    return response;
+                }));
+            }
+            for (Future<CompletableFuture<?>> request : submitted) {
+                request.get().get();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            double requestsPerSecond = REQUESTS / (elapsed / 1e9);
+            System.out.printf("%-10s %12d %12.1f %22d%n", name, elapsed / 1_000_000, requestsPerSecond,
+                    busyNanos.get() / 1_000_000);
+            return requestsPerSecond;
+        } finally {
+            requestThreads.shutdownNow();
+        }
+    }
+
+    private interface Call {
+
+        CompletableFuture<?> execute();
+    }
+}
@@ -0,0 +1,224 @@
+package com.grapeup.hotelreservation.api;
+
+import com.grapeup.hotelreservation.dto.RoomRatingDto;
+import com.grapeup.hotelreservation.exception.RatingServiceUnavailableException;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ResilientRoomRatingServiceClientTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private StubRatingServer server;
+
+    private ResilientRoomRatingServiceClient client;
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(20);
+
+    @BeforeEach
+    public void setup() throws Exception {
+        server = new StubRatingServer();
+        server.addRating(new RoomRatingDto(1L, 4.5));
+        RoomRatingServiceClient remote = server.client();
+        // The first calls through a fresh HTTP client are slow; they must not
+        // count against the timeout or hold the only call slot.
+        remote.getAll();
+        remote.getByRoomId(1L);
+        client = new ResilientRoomRatingServiceClient(remote, meterRegistry, Duration.ofSeconds(1), 1,
+                new RatingCircuitBreaker(2, Duration.ofSeconds(30), clock));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void shouldServeLastKnownRatingWhenServiceIsSlow() {
+        assertThat(client.getByRoomId(1L).get().getRating(), is(4.5));
+
+        server.hold();
+        RoomRatingDto rating = client.getByRoomId(1L).get();
+        server.release();
+
+        assertThat(rating.getRating(), is(4.5));
+        assertThat(meterRegistry.counter("ratings.calls", "outcome", "timeout").count(), is(1.0));
+    }
+
+    @Test
+    public void shouldFailFastWhenNothingIsKnownYet() {
+        server.setFailing(true);
+
+        assertThrows(RatingServiceUnavailableException.class, () -> client.getAll());
+    }
+
+    @Test
+    public void shouldOpenCircuitAfterFailuresAndCloseAfterSuccessfulTrial() {
+        client.getAll();
+        server.setFailing(true);
+        client.getAll();
+        client.getAll();
+
+        assertThat(client.getCircuitBreakerState(), is(RatingCircuitBreaker.State.OPEN));
+        assertThat(meterRegistry.get("ratings.circuitbreaker.state").gauge().value(), is(1.0));
+
+        int requests = server.getRequests();
+        assertThat(client.getAll().size(), is(1));
+        assertThat(server.getRequests(), is(requests));
+
+        server.setFailing(false);
+        clock.advance(Duration.ofSeconds(31));
+        client.getAll();
+
+        assertThat(client.getCircuitBreakerState(), is(RatingCircuitBreaker.State.CLOSED));
+        assertThat(server.getRequests(), is(requests + 1));
+    }
+
+    @Test
+    public void shouldNotCountClientErrorsAsFailures() {
+        Request request = Request.create(Request.HttpMethod.GET, "/ratings", Map.of(), null, StandardCharsets.UTF_8);
+        RoomRatingServiceClient rejecting = new RoomRatingServiceClient() {
+
+            @Override
+            public List<RoomRatingDto> getAll() {
+                throw new FeignException.BadRequest("Bad request", request, null);
+            }
+
+            @Override
+            public Optional<RoomRatingDto> getByRoomId(Long roomId) {
+                throw new FeignException.NotFound("Not found", request, null);
+            }
+        };
+        ResilientRoomRatingServiceClient rejectingClient = new ResilientRoomRatingServiceClient(rejecting,
+                meterRegistry, Duration.ofSeconds(1), 1, new RatingCircuitBreaker(2, Duration.ofSeconds(30), clock));
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertThrows(FeignException.BadRequest.class, rejectingClient::getAll);
+                assertThat(rejectingClient.getByRoomId(1L), is(Optional.empty()));
+            }
+
+            assertThat(rejectingClient.getCircuitBreakerState(), is(RatingCircuitBreaker.State.CLOSED));
+            assertThat(meterRegistry.counter("ratings.calls", "outcome", "client-error").count(), is(3.0));
+            assertThat(meterRegistry.counter("ratings.calls", "outcome", "failure").count(), is(0.0));
+        } finally {
+            rejectingClient.close();
+        }
+    }
+
+    @Test
+    public void shouldRejectCallsBeyondConcurrencyLimit() throws Exception {
+        client.getAll();
+        server.hold();
+        int requests = server.getRequests();
+
+        CompletableFuture<Void> slowCall = CompletableFuture.runAsync(() -> client.getByRoomId(1L), callers);
+        server.awaitRequests(requests + 1);
+        client.getByRoomId(2L);
+        server.release();
+        slowCall.get();
+
+        assertThat(server.getRequests(), is(requests + 1));
+        assertThat(meterRegistry.counter("ratings.calls", "outcome", "rejected").count(), is(1.0));
+    }
+
+    // With a single call slot and nothing known yet, every lookup that did
+    // not join the running call would be rejected and fail.
+    @Test
+    public void shouldShareOneCallBetweenConcurrentLookupsOfSameRoom() throws Exception {
+        server.hold();
+        int requests = server.getRequests();
+
+        List<CompletableFuture<Optional<RoomRatingDto>>> lookups = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            lookups.add(CompletableFuture.supplyAsync(() -> client.getByRoomId(1L), callers));
+        }
+        server.awaitRequests(requests + 1);
+        server.release();
+        for (CompletableFuture<Optional<RoomRatingDto>> lookup : lookups) {
+            assertThat(lookup.get().get().getRating(), is(4.5));
+        }
+
+        assertThat(server.getRequests() - requests, is(lessThan(20)));
+    }
+
+    @Test
+    public void shouldServeLastKnownRatingWhenAsynchronousCallFails() throws Exception {
+        AsyncRoomRatingServiceClient asyncClient = asyncClient();
+        assertThat(asyncClient.getByRoomId(1L).get().get().getRating(), is(4.5));
+
+        server.setFailing(true);
+
+        assertThat(asyncClient.getByRoomId(1L).get().get().getRating(), is(4.5));
+        assertThat(meterRegistry.counter("ratings.calls", "outcome", "failure").count(), is(1.0));
+    }
+
+    @Test
+    public void shouldNotCallServiceAsynchronouslyWhileCircuitIsOpen() throws Exception {
+        client.getAll();
+        server.setFailing(true);
+        client.getAll();
+        client.getAll();
+        int requests = server.getRequests();
+
+        assertThat(asyncClient().getAll().get().size(), is(1));
+        assertThat(server.getRequests(), is(requests));
+    }
+
+    private AsyncRoomRatingServiceClient asyncClient() {
+        return new AsyncRoomRatingServiceClient(server::baseUri, HttpClient.newHttpClient(),
+                Jackson2ObjectMapperBuilder.json().build(), Duration.ofSeconds(1), client);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2020-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.grapeup.hotelreservation.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 10;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldShareOneCallBetweenConcurrentCallers() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = submitAll(() -> singleFlight.execute(1L, () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "rating";
+        }));
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(), is("rating"));
+        }
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void shouldShareFailureBetweenConcurrentCallers() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = submitAll(() -> singleFlight.execute(1L, () -> {
+            calls.incrementAndGet();
+            await(release);
+            throw new IllegalStateException("rating-service down");
+        }));
+        release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+        }
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void shouldStartNewCallOnceThePreviousOneCompleted() {
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute(1L, () -> "call " + calls.incrementAndGet());
+        String second = singleFlight.execute(1L, () -> "call " + calls.incrementAndGet());
+
+        assertThat(second, is("call 2"));
+    }
+
+    // Callers are only started together; the latch keeps the first call
+    // running until every caller had the chance to join it.
+    private List<Future<String>> submitAll(Callable<String> task) throws InterruptedException {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(task));
+        }
+        TimeUnit.MILLISECONDS.sleep(200);
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
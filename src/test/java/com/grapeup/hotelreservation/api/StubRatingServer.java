@@ -0,0 +1,183 @@
+package com.grapeup.hotelreservation.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grapeup.hotelreservation.dto.RoomRatingDto;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local rating-service stand-in with injectable latency and failures, plus
+ * a plain HTTP client for it. Tests that need a call to be in flight hold
+ * the responses and wait for the request to arrive instead of relying on
+ * timing.
+ */
+class StubRatingServer implements AutoCloseable {
+
+    private static final long MAX_WAIT_SECONDS = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<Long, RoomRatingDto> ratings = new ConcurrentHashMap<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final HttpServer server;
+
+    private volatile Duration latency = Duration.ZERO;
+
+    private volatile boolean failing;
+
+    private volatile CountDownLatch responses = new CountDownLatch(0);
+
+    StubRatingServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 512);
+        server.createContext("/ratings", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    void addRating(RoomRatingDto rating) {
+        ratings.put(rating.getId(), rating);
+    }
+
+    void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    // Responses wait until release() is called.
+    void hold() {
+        responses = new CountDownLatch(1);
+    }
+
+    void release() {
+        responses.countDown();
+    }
+
+    int getRequests() {
+        return requests.get();
+    }
+
+    void awaitRequests(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(MAX_WAIT_SECONDS);
+        synchronized (requests) {
+            while (requests.get() < count) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Expected " + count + " requests, got " + requests.get());
+                }
+                TimeUnit.NANOSECONDS.timedWait(requests, remaining);
+            }
+        }
+    }
+
+    URI baseUri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    RoomRatingServiceClient client() {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        String baseUrl = baseUri() + "/ratings";
+        return new RoomRatingServiceClient() {
+
+            @Override
+            public List<RoomRatingDto> getAll() {
+                List<RoomRatingDto> all = new ArrayList<>();
+                read(get(httpClient, baseUrl)).forEach(node -> all.add(toRating(node)));
+                return all;
+            }
+
+            @Override
+            public Optional<RoomRatingDto> getByRoomId(Long roomId) {
+                String body = get(httpClient, baseUrl + "/" + roomId);
+                return body.isEmpty() ? Optional.empty() : Optional.of(toRating(read(body)));
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        release();
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        synchronized (requests) {
+            requests.incrementAndGet();
+            requests.notifyAll();
+        }
+        try {
+            Thread.sleep(latency.toMillis());
+            responses.await(MAX_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failing) {
+            respond(exchange, 500, new byte[0]);
+            return;
+        }
+        String path = exchange.getRequestURI().getPath();
+        Object body = path.equals("/ratings")
+                ? List.copyOf(ratings.values())
+                : ratings.get(Long.valueOf(path.substring("/ratings/".length())));
+        respond(exchange, 200, body == null ? new byte[0] : objectMapper.writeValueAsBytes(body));
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String get(HttpClient httpClient, String url) {
+        try {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Rating service returned " + response.statusCode());
+            }
+            return response.body();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode read(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static RoomRatingDto toRating(JsonNode node) {
+        return new RoomRatingDto(node.get("id").asLong(), node.get("rating").asDouble());
+    }
+}
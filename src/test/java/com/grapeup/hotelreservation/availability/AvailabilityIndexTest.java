@@ -0,0 +1,159 @@
+package com.grapeup.hotelreservation.availability;
+
+import com.grapeup.hotelreservation.model.RoomType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public abstract class AvailabilityIndexTest {
+
+    private AvailabilityIndex availabilityIndex;
+
+    protected abstract AvailabilityIndex createIndex();
+
+    @BeforeEach
+    public void setup() {
+        availabilityIndex = createIndex();
+        availabilityIndex.addRoom(1L, RoomType.BASIC);
+        availabilityIndex.addRoom(2L, RoomType.BASIC);
+        availabilityIndex.addRoom(3L, RoomType.SUITE);
+        availabilityIndex.book(1L, 1L, LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 31));
+        availabilityIndex.book(2L, 1L, LocalDate.of(2020, 9, 2), LocalDate.of(2020, 10, 1));
+    }
+
+    @Test
+    public void shouldFindRoomAvailableBetweenReservations() {
+        assertThat(availabilityIndex.isAvailable(1L, LocalDate.of(2020, 8, 1),
+                LocalDate.of(2020, 9, 1), null), is(true));
+    }
+
+    @Test
+    public void shouldNotFindRoomAvailableWhenDatesOverlapPreviousReservation() {
+        assertThat(availabilityIndex.isAvailable(1L, LocalDate.of(2020, 7, 31),
+                LocalDate.of(2020, 8, 10), null), is(false));
+    }
+
+    @Test
+    public void shouldNotFindRoomAvailableWhenDatesOverlapNextReservation() {
+        assertThat(availabilityIndex.isAvailable(1L, LocalDate.of(2020, 8, 10),
+                LocalDate.of(2020, 9, 2), null), is(false));
+    }
+
+    @Test
+    public void shouldNotFindRoomAvailableWhenDatesCoverWholeReservation() {
+        assertThat(availabilityIndex.isAvailable(1L, LocalDate.of(2020, 6, 1),
+                LocalDate.of(2020, 12, 1), null), is(false));
+    }
+
+    @Test
+    public void shouldIgnoreUpdatedReservationWhenCheckingAvailability() {
+        assertThat(availabilityIndex.isAvailable(1L, LocalDate.of(2020, 9, 1),
+                LocalDate.of(2020, 9, 20), 2L), is(true));
+        assertThat(availabilityIndex.isAvailable(1L, LocalDate.of(2020, 7, 20),
+                LocalDate.of(2020, 9, 20), 2L), is(false));
+    }
+
+    @Test
+    public void shouldFindAvailableRoomsOfRequestedTypeOnly() {
+        List<Long> rooms = availabilityIndex.findAvailableRooms(RoomType.BASIC,
+                LocalDate.of(2020, 7, 10), LocalDate.of(2020, 7, 20));
+
+        assertThat(rooms, contains(2L));
+    }
+
+    @Test
+    public void shouldFindFirstAvailableRoomOfRequestedType() {
+        assertThat(availabilityIndex.findFirstAvailableRoom(RoomType.BASIC,
+                LocalDate.of(2020, 8, 1), LocalDate.of(2020, 9, 1)), is(Optional.of(1L)));
+        assertThat(availabilityIndex.findFirstAvailableRoom(RoomType.BASIC,
+                LocalDate.of(2020, 7, 10), LocalDate.of(2020, 7, 20)), is(Optional.of(2L)));
+        assertThat(availabilityIndex.findFirstAvailableRoom(RoomType.PENTHOUSE,
+                LocalDate.of(2020, 7, 10), LocalDate.of(2020, 7, 20)), is(Optional.empty()));
+    }
+
+    @Test
+    public void shouldFreeDatesWhenReservationReleased() {
+        availabilityIndex.release(1L);
+
+        assertThat(availabilityIndex.findAvailableRooms(RoomType.BASIC,
+                LocalDate.of(2020, 7, 10), LocalDate.of(2020, 7, 20)), contains(1L, 2L));
+    }
+
+    @Test
+    public void shouldMoveReservationWhenBookedAgain() {
+        availabilityIndex.book(1L, 2L, LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 31));
+
+        assertThat(availabilityIndex.findAvailableRooms(RoomType.BASIC,
+                LocalDate.of(2020, 7, 10), LocalDate.of(2020, 7, 20)), contains(1L));
+    }
+
+    @Test
+    public void shouldNotFindRoomsOfTypeWithoutRooms() {
+        assertThat(availabilityIndex.findAvailableRooms(RoomType.PENTHOUSE,
+                LocalDate.of(2020, 7, 10), LocalDate.of(2020, 7, 20)), is(empty()));
+    }
+
+    @Test
+    public void shouldFindBookedDaysAroundFreeRange() {
+        assertThat(availabilityIndex.findLastBookedDayBefore(1L, LocalDate.of(2020, 8, 10)),
+                is(Optional.of(LocalDate.of(2020, 7, 31))));
+        assertThat(availabilityIndex.findFirstBookedDayAfter(1L, LocalDate.of(2020, 8, 20)),
+                is(Optional.of(LocalDate.of(2020, 9, 2))));
+    }
+
+    @Test
+    public void shouldNotFindBookedDaysAroundEmptyCalendar() {
+        assertThat(availabilityIndex.findLastBookedDayBefore(2L, LocalDate.of(2020, 8, 10)),
+                is(Optional.empty()));
+        assertThat(availabilityIndex.findFirstBookedDayAfter(1L, LocalDate.of(2020, 10, 1)),
+                is(Optional.empty()));
+    }
+
+    @Test
+    public void shouldBookStaysBefore1970() {
+        availabilityIndex.book(3L, 2L, LocalDate.of(1969, 12, 20), LocalDate.of(1970, 1, 5));
+
+        assertThat(availabilityIndex.isAvailable(2L, LocalDate.of(1969, 12, 25),
+                LocalDate.of(1969, 12, 26), null), is(false));
+        assertThat(availabilityIndex.findFirstBookedDayAfter(2L, LocalDate.of(1969, 12, 1)),
+                is(Optional.of(LocalDate.of(1969, 12, 20))));
+        assertThat(availabilityIndex.findLastBookedDayBefore(2L, LocalDate.of(1970, 1, 10)),
+                is(Optional.of(LocalDate.of(1970, 1, 5))));
+
+        availabilityIndex.release(3L);
+
+        assertThat(availabilityIndex.isAvailable(2L, LocalDate.of(1969, 12, 25),
+                LocalDate.of(1969, 12, 26), null), is(true));
+    }
+
+    @Test
+    public void shouldKeepOverlappingStayBookedWhenOtherIsReleased() {
+        availabilityIndex.book(3L, 2L, LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 31));
+        availabilityIndex.book(4L, 2L, LocalDate.of(2020, 7, 10), LocalDate.of(2020, 7, 15));
+
+        assertThat(availabilityIndex.isAvailable(2L, LocalDate.of(2020, 7, 12),
+                LocalDate.of(2020, 7, 13), 3L), is(false));
+
+        availabilityIndex.release(3L);
+
+        assertThat(availabilityIndex.isAvailable(2L, LocalDate.of(2020, 7, 12),
+                LocalDate.of(2020, 7, 13), null), is(false));
+        assertThat(availabilityIndex.isAvailable(2L, LocalDate.of(2020, 7, 1),
+                LocalDate.of(2020, 7, 9), null), is(true));
+        assertThat(availabilityIndex.findFirstBookedDayAfter(2L, LocalDate.of(2020, 7, 1)),
+                is(Optional.of(LocalDate.of(2020, 7, 10))));
+
+        availabilityIndex.release(4L);
+
+        assertThat(availabilityIndex.findAvailableRooms(RoomType.BASIC,
+                LocalDate.of(2020, 7, 10), LocalDate.of(2020, 7, 20)), contains(2L));
+    }
+}
@@ -0,0 +1,9 @@
+package com.grapeup.hotelreservation.availability;
+
+public class IntervalTreeAvailabilityIndexTest extends AvailabilityIndexTest {
+
+    @Override
+    protected AvailabilityIndex createIndex() {
+        return new IntervalTreeAvailabilityIndex();
+    }
+}
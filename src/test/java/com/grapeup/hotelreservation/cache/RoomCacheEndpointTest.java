@@ -0,0 +1,69 @@
+package com.grapeup.hotelreservation.cache;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.model.RoomType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "reservation.cache.admin-token=secret")
+@AutoConfigureMockMvc
+@DirtiesContext
+public class RoomCacheEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Test
+    public void shouldExposeStatistics() throws Exception {
+        mockMvc.perform(get("/actuator/roomcache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.room.enabled").exists());
+    }
+
+    @Test
+    public void shouldRefuseEvictionWithoutAdminToken() throws Exception {
+        mockMvc.perform(delete("/actuator/roomcache"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/actuator/roomcache/{roomId}", 2)
+                .header(RoomCacheAdminFilter.ADMIN_TOKEN_HEADER, "wrong"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void shouldRegisterRoomsAddedInDatabaseWhenEvicted() throws Exception {
+        jdbcTemplate.update("INSERT INTO room (id, room_type, rating) VALUES (40, 'SUITE', 0)");
+        LocalDate startDate = LocalDate.of(2035, 1, 1);
+        LocalDate endDate = LocalDate.of(2035, 1, 5);
+        assertThat(availabilityIndex.findAvailableRooms(RoomType.SUITE, startDate, endDate), not(hasItem(40L)));
+
+        mockMvc.perform(delete("/actuator/roomcache")
+                .header(RoomCacheAdminFilter.ADMIN_TOKEN_HEADER, "secret"))
+                .andExpect(status().isNoContent());
+
+        assertThat(availabilityIndex.findAvailableRooms(RoomType.SUITE, startDate, endDate), hasItem(40L));
+    }
+}
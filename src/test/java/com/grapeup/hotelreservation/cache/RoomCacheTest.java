@@ -0,0 +1,55 @@
+package com.grapeup.hotelreservation.cache;
+
+import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.repository.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=org.ehcache.jsr107.EhcacheCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@DirtiesContext
+public class RoomCacheTest {
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCache roomCache;
+
+    @Test
+    public void shouldServeCapacityQueryFromCacheUntilEvicted() {
+        roomRepository.findRoomsWithCapacity(RoomType.BASIC);
+        roomRepository.findRoomsWithCapacity(RoomType.BASIC);
+
+        Map<String, Object> queryStatistics = queryStatistics();
+        assertThat(queryStatistics.get("enabled"), is(true));
+        assertThat((Long) queryStatistics.get("hits"), greaterThan(0L));
+
+        long missesBeforeEviction = (Long) queryStatistics.get("misses");
+        roomCache.evict();
+        roomRepository.findRoomsWithCapacity(RoomType.BASIC);
+
+        assertThat((Long) queryStatistics().get("misses"), greaterThan(missesBeforeEviction));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> queryStatistics() {
+        return (Map<String, Object>) roomCache.statistics().get(RoomRepository.CAPACITY_QUERY_CACHE_REGION);
+    }
+}
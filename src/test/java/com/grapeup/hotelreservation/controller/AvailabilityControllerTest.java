@@ -0,0 +1,82 @@
+package com.grapeup.hotelreservation.controller;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.model.RoomType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AvailabilityControllerTest {
+
+    @MockBean
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("GET /availability - Success")
+    public void shouldReturnAvailableRoomsOfFittingType() throws Exception {
+        LocalDate from = LocalDate.of(2030, 6, 1);
+        LocalDate to = LocalDate.of(2030, 6, 5);
+        when(availabilityIndex.findAvailableRooms(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(availabilityIndex.findAvailableRooms(RoomType.SUITE, from, to)).thenReturn(List.of(4L, 5L));
+        when(availabilityIndex.findAvailableRooms(eq(RoomType.PENTHOUSE), any(), any())).thenReturn(List.of(1L));
+
+        mockMvc.perform(get("/availability")
+                .param("from", "2030-06-01")
+                .param("to", "2030-06-05")
+                .param("people", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.numberOfPeople", is(5)))
+                .andExpect(jsonPath("$.roomIds", contains(4, 5)))
+                .andExpect(jsonPath("$.roomsPerType.BASIC").doesNotExist())
+                .andExpect(jsonPath("$.roomsPerType.SUITE", is(2)))
+                .andExpect(jsonPath("$.roomsPerType.PENTHOUSE").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /availability - Bad Request - dates")
+    public void shouldReturnBadRequestWhenStartIsNotBeforeEnd() throws Exception {
+        mockMvc.perform(get("/availability")
+                .param("from", "2030-06-05")
+                .param("to", "2030-06-05")
+                .param("people", "2"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /availability - Bad Request - number of people")
+    public void shouldReturnBadRequestWhenNoRoomFitsNumberOfPeople() throws Exception {
+        mockMvc.perform(get("/availability")
+                .param("from", "2030-06-01")
+                .param("to", "2030-06-05")
+                .param("people", "9"))
+                .andExpect(status().isBadRequest());
+    }
+}
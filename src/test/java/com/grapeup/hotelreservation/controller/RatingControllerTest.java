@@ -1,5 +1,6 @@
 package com.grapeup.hotelreservation.controller;
 
+import com.grapeup.hotelreservation.api.AsyncRoomRatingServiceClient;
 import com.grapeup.hotelreservation.api.RoomRatingServiceClient;
 import com.grapeup.hotelreservation.dto.RoomRatingDto;
 import org.junit.jupiter.api.BeforeAll;
@@ -14,19 +15,25 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -37,6 +44,9 @@ public class RatingControllerTest {
     @MockBean
     private RoomRatingServiceClient roomRatingServiceClient;
 
+    @MockBean
+    private AsyncRoomRatingServiceClient asyncRoomRatingServiceClient;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -74,6 +84,18 @@ public class RatingControllerTest {
                 .andExpect(jsonPath("$[0].rating", is(roomRatingDto1.getRating())));
     }
 
+    @Test
+    @DisplayName("GET /ratings?roomIds=1,2 - Success")
+    public void shouldReturnRatingsForRequestedRooms() throws Exception {
+        when(roomRatingServiceClient.getByRoomIds(List.of(1L, 2L))).thenReturn(List.of(roomRatingDto1, roomRatingDto2));
+
+        mockMvc.perform(get("/ratings?roomIds={roomIds}", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id", is(2)));
+        verify(roomRatingServiceClient, never()).getAll();
+    }
+
     @Test
     @DisplayName("GET /ratings/1 - Found")
     void shouldFindRatingByRoomId() throws Exception {
@@ -87,6 +109,37 @@ public class RatingControllerTest {
                 .andExpect(jsonPath("$.rating", is(roomRatingDto1.getRating())));
     }
 
+    @Test
+    @DisplayName("GET /ratings/async/1 - Found")
+    void shouldFindRatingByRoomIdAsynchronously() throws Exception {
+        when(asyncRoomRatingServiceClient.getByRoomId(1L))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(roomRatingDto1)));
+
+        MvcResult result = mockMvc.perform(get("/ratings/async/{roomId}", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/ratings/1"))
+                .andExpect(jsonPath("$.rating", is(roomRatingDto1.getRating())));
+        verify(roomRatingServiceClient, never()).getByRoomId(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /ratings/async/99 - Not Found")
+    void shouldNotFindRatingByRoomIdAsynchronously() throws Exception {
+        when(asyncRoomRatingServiceClient.getByRoomId(99L))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        MvcResult result = mockMvc.perform(get("/ratings/async/{roomId}", 99))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("GET /ratings/1 - Not Found")
     void shouldNotFindRatingByRoomId() throws Exception {
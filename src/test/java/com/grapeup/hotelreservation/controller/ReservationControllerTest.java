@@ -1,11 +1,13 @@
 package com.grapeup.hotelreservation.controller;
 
 import com.grapeup.hotelreservation.TestUtils;
+import com.grapeup.hotelreservation.converter.ReservationConverter;
 import com.grapeup.hotelreservation.dto.ReservationDto;
 import com.grapeup.hotelreservation.exception.AvailableRoomNotFoundException;
 import com.grapeup.hotelreservation.model.Reservation;
 import com.grapeup.hotelreservation.model.Room;
 import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.readmodel.ReservationReadModel;
 import com.grapeup.hotelreservation.service.ReservationService;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -19,19 +21,28 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -39,6 +50,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -49,6 +61,9 @@ public class ReservationControllerTest {
     @MockBean
     private ReservationService reservationService;
 
+    @MockBean
+    private ReservationReadModel readModel;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -83,7 +98,8 @@ public class ReservationControllerTest {
         Room room2 = Room.builder().id(2L).roomType(RoomType.SUITE).reservations(Set.of(mockReservation2)).build();
         mockReservation2.setRoom(room2);
 
-        when(reservationService.findAll()).thenReturn(Arrays.asList(mockReservation, mockReservation2));
+        when(readModel.findAll()).thenReturn(Arrays.asList(
+                ReservationConverter.toDto(mockReservation), ReservationConverter.toDto(mockReservation2)));
 
         mockMvc.perform(get("/reservations"))
                 .andExpect(status().isOk())
@@ -100,7 +116,7 @@ public class ReservationControllerTest {
     @Test
     @DisplayName("GET /reservations/1 - Found")
     void shouldGetReservationById() throws Exception {
-        doReturn(Optional.of(mockReservation)).when(reservationService).findById(1L);
+        doReturn(Optional.of(mockReservation)).when(reservationService).findByIdIncludingArchived(1L);
 
         mockMvc.perform(get("/reservations/{id}", 1))
                 .andExpect(status().isOk())
@@ -114,10 +130,24 @@ public class ReservationControllerTest {
                 .andExpect(jsonPath("$.roomId", is(mockReservation.getRoom().getId().intValue())));
     }
 
+    @Test
+    @DisplayName("GET /reservations/1 - Found in read model")
+    void shouldGetReservationByIdFromReadModel() throws Exception {
+        doReturn(Optional.of(ReservationConverter.toDto(mockReservation))).when(readModel).findById(1L);
+
+        mockMvc.perform(get("/reservations/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/reservations/1"))
+                .andExpect(jsonPath("$.id", is(mockReservation.getId().intValue())))
+                .andExpect(jsonPath("$.roomId", is(mockReservation.getRoom().getId().intValue())));
+
+        verify(reservationService, never()).findByIdIncludingArchived(any());
+    }
+
     @Test
     @DisplayName("GET /reservations/1 - Not Found")
     void shouldNotFindReservationById() throws Exception {
-        doReturn(Optional.empty()).when(reservationService).findById(1L);
+        doReturn(Optional.empty()).when(reservationService).findByIdIncludingArchived(1L);
 
         mockMvc.perform(get("/reservations/{id}", 1))
                 .andExpect(status().isNotFound());
@@ -325,7 +355,7 @@ public class ReservationControllerTest {
     @Test
     @DisplayName("GET /reservations?roomNumber=5 - Success - empty list")
     void shouldReturnEmptyListWhenNoReservationsForRoom() throws Exception {
-        doReturn(Collections.emptyList()).when(reservationService).findForRoom(5L);
+        doReturn(Collections.emptyList()).when(readModel).findForRoom(5L);
 
         mockMvc.perform(get("/reservations?roomNumber={roomNumber}", 5))
                 .andExpect(status().isOk())
@@ -341,7 +371,8 @@ public class ReservationControllerTest {
                 .endDate(LocalDate.of(2020, 4, 7))
                 .room(mockRoom).build();
 
-        doReturn(Arrays.asList(mockReservation, reservation2)).when(reservationService).findForRoom(1L);
+        doReturn(Arrays.asList(ReservationConverter.toDto(mockReservation), ReservationConverter.toDto(reservation2)))
+                .when(readModel).findForRoom(1L);
 
         mockMvc.perform(get("/reservations?roomNumber={roomNumber}", 1l))
                 .andExpect(status().isOk())
@@ -354,4 +385,133 @@ public class ReservationControllerTest {
                 .andExpect(jsonPath("$[0].endDate", is(mockReservation.getEndDate().toString())))
                 .andExpect(jsonPath("$[0].roomId", is(mockReservation.getRoom().getId().intValue())));
     }
+
+    @Test
+    @DisplayName("GET /reservations?username=test - Success")
+    void shouldReturnReservationsForUsername() throws Exception {
+        doReturn(Arrays.asList(ReservationConverter.toDto(mockReservation)))
+                .when(readModel).findForUsername("test");
+
+        mockMvc.perform(get("/reservations?username={username}", "test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].username", is("test")));
+    }
+
+    @Test
+    @DisplayName("GET /reservations?username=test&from=...&to=...&roomNumber=2 - Success - filtered by room")
+    void shouldReturnReservationsStartingBetweenDatesForRoom() throws Exception {
+        ReservationDto reservation2 = ReservationDto.builder().id(2L).username("test").roomId(2L).build();
+        doReturn(Arrays.asList(ReservationConverter.toDto(mockReservation), reservation2))
+                .when(readModel).findStartingBetween("test",
+                        LocalDate.of(2020, 8, 1), LocalDate.of(2020, 8, 7));
+
+        mockMvc.perform(get("/reservations?username={username}&from={from}&to={to}&roomNumber={roomNumber}",
+                "test", "2020-08-01", "2020-08-07", 2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(2)));
+    }
+
+    @Test
+    @DisplayName("GET /reservations?from=2020-08-01 - Bad Request - missing to")
+    void shouldRejectOpenDateRange() throws Exception {
+        mockMvc.perform(get("/reservations?from={from}", "2020-08-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /reservations?after=1&limit=2 - Success - next page link")
+    void shouldReturnPageOfReservationsWithNextLink() throws Exception {
+        ReservationDto reservation2 = ReservationDto.builder().id(2L).username("test").roomId(1L).build();
+        ReservationDto reservation3 = ReservationDto.builder().id(3L).username("test").roomId(2L).build();
+        when(readModel.findAfter(1L, 2)).thenReturn(Arrays.asList(reservation2, reservation3));
+
+        mockMvc.perform(get("/reservations?after={after}&limit={limit}", 1, 2))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.LINK, "</reservations?after=3&limit=2>; rel=\"next\""))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(jsonPath("$[1].id", is(3)));
+    }
+
+    @Test
+    @DisplayName("GET /reservations?roomNumber=1&after=3&limit=2 - Success - last page")
+    void shouldReturnLastPageOfReservationsForRoomWithoutNextLink() throws Exception {
+        ReservationDto reservation4 = ReservationDto.builder().id(4L).username("test").roomId(1L).build();
+        when(readModel.findForRoomAfter(1L, 3L, 2)).thenReturn(Arrays.asList(reservation4));
+
+        mockMvc.perform(get("/reservations?roomNumber={roomNumber}&after={after}&limit={limit}", 1, 3, 2))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(4)));
+    }
+
+    @Test
+    @DisplayName("GET /reservations?limit=5000 - Success - limit capped")
+    void shouldCapPageSize() throws Exception {
+        when(readModel.findAfter(anyLong(), anyInt())).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/reservations?limit={limit}", 5000))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        verify(readModel).findAfter(0L, 1000);
+    }
+
+    @Test
+    @DisplayName("GET /reservations?roomNumber=1 as NDJSON - Success")
+    void shouldStreamReservationsAsNdjson() throws Exception {
+        ReservationDto reservation1 = ReservationDto.builder().id(1L).username("test").roomId(1L).build();
+        ReservationDto reservation2 = ReservationDto.builder().id(2L).username("test").roomId(1L).build();
+        doAnswer(invocation -> {
+            Consumer<ReservationDto> action = invocation.getArgument(1);
+            action.accept(reservation1);
+            action.accept(reservation2);
+            return null;
+        }).when(readModel).forEach(eq(1L), any());
+
+        MvcResult result = mockMvc.perform(get("/reservations?roomNumber={roomNumber}", 1)
+                .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(TestUtils.asJsonString(reservation1) + "\n"
+                        + TestUtils.asJsonString(reservation2) + "\n"));
+    }
+
+    @Test
+    @DisplayName("POST /reservations/batch - Success - per item results")
+    void shouldCreateBatchAndReportEachItem() throws Exception {
+        ReservationDto created = ReservationDto.builder().username("test").numberOfPeople(3)
+                .startDate(LocalDate.now().plusDays(10)).endDate(LocalDate.now().plusDays(12)).build();
+        ReservationDto soldOut = ReservationDto.builder().username("test").numberOfPeople(3)
+                .startDate(LocalDate.now().plusDays(20)).endDate(LocalDate.now().plusDays(22)).build();
+        ReservationDto invalid = ReservationDto.builder().username("test").numberOfPeople(12)
+                .startDate(LocalDate.now().plusDays(10)).endDate(LocalDate.now().plusDays(12)).build();
+        Reservation saved = ReservationConverter.toEntity(created);
+        saved.setId(5L);
+        saved.setRoom(mockRoom);
+        doReturn(Arrays.asList(Optional.of(saved), Optional.empty()))
+                .when(reservationService).saveAll(any());
+
+        mockMvc.perform(post("/reservations/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtils.asJsonString(Arrays.asList(created, invalid, soldOut))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].reservation.id", is(5)))
+                .andExpect(jsonPath("$[0].reservation.roomId", is(1)))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].status", is("BAD_REQUEST")))
+                .andExpect(jsonPath("$[1].errors", hasSize(1)))
+                .andExpect(jsonPath("$[2].index", is(2)))
+                .andExpect(jsonPath("$[2].status", is("NOT_FOUND")));
+    }
 }
@@ -0,0 +1,88 @@
+package com.grapeup.hotelreservation.datasource;
+
+import com.grapeup.hotelreservation.dto.ReservationDto;
+import com.grapeup.hotelreservation.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {
+        "reservation.datasource.routing.enabled=true",
+        "reservation.datasource.primary.url=" + ReadWriteRoutingDataSourceTest.PRIMARY_URL,
+        "reservation.datasource.primary.username=sa",
+        "reservation.datasource.replica.url=" + ReadWriteRoutingDataSourceTest.REPLICA_URL,
+        "reservation.datasource.replica.username=sa"})
+@DirtiesContext
+public class ReadWriteRoutingDataSourceTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    private static final long REPLICA_ONLY_ID = 99L;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @BeforeEach
+    public void setupReplica() {
+        DriverManagerDataSource replica = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("data.sql")).execute(replica);
+        new JdbcTemplate(replica).update("INSERT INTO reservation VALUES(?, 'replica_user', 2, "
+                + "'2022-01-01', '2022-01-03', 3)", REPLICA_ONLY_ID);
+    }
+
+    @AfterEach
+    public void clearClient() {
+        ClientContext.clear();
+    }
+
+    @Test
+    public void shouldServeReadOnlyQueriesFromReplica() {
+        assertThat(findAllIds(), hasItem(REPLICA_ONLY_ID));
+    }
+
+    @Test
+    public void shouldServeClientWithRecentWriteFromPrimary() {
+        ClientContext.setClientId("recent-writer");
+        readYourWritesTracker.recordWrite("recent-writer");
+
+        assertThat(findAllIds(), not(hasItem(REPLICA_ONLY_ID)));
+    }
+
+    @Test
+    public void shouldRecordWriteAfterCommit() {
+        ClientContext.setClientId("deleting-client");
+
+        reservationService.delete(4L);
+
+        assertThat(readYourWritesTracker.hasRecentWrite("deleting-client"), is(true));
+        assertThat(findAllIds(), not(hasItem(REPLICA_ONLY_ID)));
+    }
+
+    private List<Long> findAllIds() {
+        return reservationService.findAllDtos().stream()
+                .map(ReservationDto::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -20,8 +20,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import javax.sql.DataSource;
 import java.time.LocalDate;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.oneOf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -102,6 +104,38 @@ public class HotelReservationIntegrationTest {
                 .andExpect(jsonPath("$.roomId", is(2)));
     }
 
+    @Test
+    @DisplayName("GET /availability then POST /reservations - same answer")
+    void shouldBookWhatAvailabilitySearchOffers() throws Exception {
+        mockMvc.perform(get("/availability")
+                .param("from", "2036-05-01")
+                .param("to", "2036-05-04")
+                .param("people", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomIds", contains(2, 3)));
+        mockMvc.perform(post("/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtils.asJsonString(ReservationDto.builder().username("test")
+                        .numberOfPeople(3).startDate(LocalDate.of(2036, 5, 1))
+                        .endDate(LocalDate.of(2036, 5, 4)).build())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.roomId", is(oneOf(2, 3))));
+
+        // There is no suite, and a larger penthouse is never assigned.
+        mockMvc.perform(get("/availability")
+                .param("from", "2036-05-01")
+                .param("to", "2036-05-04")
+                .param("people", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomIds", hasSize(0)));
+        mockMvc.perform(post("/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtils.asJsonString(ReservationDto.builder().username("test")
+                        .numberOfPeople(5).startDate(LocalDate.of(2036, 5, 1))
+                        .endDate(LocalDate.of(2036, 5, 4)).build())))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("POST /reservations - Bad Request")
     void shouldReturnBadRequestWhenNoAvailableRoomForNewReservation() throws Exception {
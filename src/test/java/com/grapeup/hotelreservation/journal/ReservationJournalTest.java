@@ -0,0 +1,129 @@
+package com.grapeup.hotelreservation.journal;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+public class ReservationJournalTest {
+
+    private static final int INITIAL_SIZE = 256;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldReplayEntriesAfterReopening() throws IOException {
+        Path file = directory.resolve("reservations.journal");
+        try (ReservationJournal journal = new ReservationJournal(file, INITIAL_SIZE, true)) {
+            journal.appendPut(reservation(1L));
+            journal.appendPut(reservation(2L));
+            journal.appendDelete(1L);
+        }
+
+        List<JournalEntry> entries = replay(file, 0L);
+
+        assertThat(entries, hasSize(3));
+        assertThat(entries.get(0).getType(), is(JournalEntry.Type.PUT));
+        assertThat(entries.get(0).getReservation().getUsername(), is("guest1"));
+        assertThat(entries.get(0).getReservation().getRoom().getId(), is(3L));
+        assertThat(entries.get(0).getReservation().getEndDate(), is(LocalDate.of(2030, 1, 4)));
+        assertThat(entries.get(2).getType(), is(JournalEntry.Type.DELETE));
+        assertThat(entries.get(2).getReservationId(), is(1L));
+        assertThat(entries.get(2).getSequence(), is(3L));
+    }
+
+    @Test
+    public void shouldGrowBeyondInitialMapping() throws IOException {
+        Path file = directory.resolve("reservations.journal");
+        try (ReservationJournal journal = new ReservationJournal(file, INITIAL_SIZE, false)) {
+            for (long id = 1; id <= 100; id++) {
+                journal.appendPut(reservation(id));
+            }
+        }
+
+        assertThat(replay(file, 0L), hasSize(100));
+    }
+
+    @Test
+    public void shouldSkipEntriesCoveredBySnapshot() throws IOException {
+        Path file = directory.resolve("reservations.journal");
+        try (ReservationJournal journal = new ReservationJournal(file, INITIAL_SIZE, true)) {
+            journal.appendPut(reservation(1L));
+            journal.appendPut(reservation(2L));
+        }
+
+        List<JournalEntry> entries = replay(file, 1L);
+
+        assertThat(entries, hasSize(1));
+        assertThat(entries.get(0).getReservationId(), is(2L));
+    }
+
+    @Test
+    public void shouldStopAtTornEntryAndContinueAppendingThere() throws IOException {
+        Path file = directory.resolve("reservations.journal");
+        try (ReservationJournal journal = new ReservationJournal(file, INITIAL_SIZE, true)) {
+            journal.appendPut(reservation(1L));
+            journal.appendPut(reservation(2L));
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(firstFrameEnd(file) + 12);
+            raw.write(0x7f);
+        }
+
+        try (ReservationJournal journal = new ReservationJournal(file, INITIAL_SIZE, true)) {
+            List<JournalEntry> entries = new ArrayList<>();
+            journal.replay(0L, entries::add);
+            assertThat(entries, hasSize(1));
+            assertThat(journal.appendPut(reservation(3L)), is(2L));
+        }
+
+        List<JournalEntry> entries = replay(file, 0L);
+        assertThat(entries, hasSize(2));
+        assertThat(entries.get(1).getReservationId(), is(3L));
+    }
+
+    @Test
+    public void shouldDropEntriesOnTruncate() throws IOException {
+        Path file = directory.resolve("reservations.journal");
+        try (ReservationJournal journal = new ReservationJournal(file, INITIAL_SIZE, true)) {
+            journal.appendPut(reservation(1L));
+            journal.truncate();
+        }
+
+        assertThat(replay(file, 0L), is(empty()));
+    }
+
+    private static List<JournalEntry> replay(Path file, long afterSequence) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        try (ReservationJournal journal = new ReservationJournal(file, INITIAL_SIZE, true)) {
+            journal.replay(afterSequence, entries::add);
+        }
+        return entries;
+    }
+
+    // Offset right after the first frame: both header fields plus its payload.
+    private static long firstFrameEnd(Path file) throws IOException {
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "r")) {
+            return 2 * Integer.BYTES + raw.readInt();
+        }
+    }
+
+    private static Reservation reservation(Long id) {
+        return Reservation.builder().id(id).username("guest" + id).numberOfPeople(2)
+                .startDate(LocalDate.of(2030, 1, 1)).endDate(LocalDate.of(2030, 1, 4))
+                .room(Room.builder().id(3L).build()).build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.grapeup.hotelreservation.readmodel;
+
+import com.grapeup.hotelreservation.dto.ReservationDto;
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@DirtiesContext
+public class ReservationReadModelTest {
+
+    @Autowired
+    private ReservationReadModel readModel;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    public void shouldFollowSavedAndDeletedReservations() {
+        assertThat(readModel.findAll(), hasSize(4));
+
+        Reservation saved = reservationService.save(Reservation.builder().username("read_model_user")
+                .numberOfPeople(2).startDate(LocalDate.of(2030, 1, 1))
+                .endDate(LocalDate.of(2030, 1, 5)).build());
+
+        assertThat(readModel.findById(saved.getId()).isPresent(), is(true));
+        assertThat(readModel.findForUsername("read_model_user"), hasSize(1));
+        assertThat(readModel.findForRoom(saved.getRoom().getId()).stream()
+                .anyMatch(reservation -> reservation.getId().equals(saved.getId())), is(true));
+
+        reservationService.delete(saved.getId());
+
+        assertThat(readModel.findById(saved.getId()).isPresent(), is(false));
+        assertThat(readModel.findForUsername("read_model_user"), hasSize(0));
+    }
+
+    @Test
+    public void shouldFindReservationsStartingBetweenDates() {
+        LocalDate from = LocalDate.of(2020, 12, 12);
+        LocalDate to = LocalDate.of(2020, 12, 17);
+
+        assertThat(readModel.findStartingBetween(null, from, to).stream().map(ReservationDto::getId)
+                .collect(Collectors.toList()), contains(3L, 1L));
+        assertThat(readModel.findStartingBetween("test_user", from, to).stream().map(ReservationDto::getId)
+                .collect(Collectors.toList()), contains(3L, 1L));
+        assertThat(readModel.findStartingBetween("unknown_user", from, to), is(empty()));
+        assertThat(readModel.findStartingBetween(null, to, from), is(empty()));
+    }
+}
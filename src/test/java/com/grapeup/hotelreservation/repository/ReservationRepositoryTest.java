@@ -1,10 +1,13 @@
 package com.grapeup.hotelreservation.repository;
 
+import com.grapeup.hotelreservation.dto.ReservationDto;
 import com.grapeup.hotelreservation.model.Reservation;
 import com.grapeup.hotelreservation.model.Room;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -77,6 +80,28 @@ public class ReservationRepositoryTest {
         assertThat(reservations, is(empty()));
     }
 
+    @Test
+    public void shouldFindAllReservationDtos() {
+        List<ReservationDto> reservations = reservationRepository.findAllDtos();
+
+        assertThat(reservations, hasSize(4));
+        assertThat(reservations.get(0).getId(), is(1L));
+        assertThat(reservations.get(0).getUsername(), is("test_user"));
+        assertThat(reservations.get(0).getNumberOfPeople(), is(7));
+        assertThat(reservations.get(0).getStartDate().toString(), is("2020-12-17"));
+        assertThat(reservations.get(0).getEndDate().toString(), is("2020-12-20"));
+        assertThat(reservations.get(0).getRoomId(), is(1L));
+    }
+
+    @Test
+    public void shouldStreamReservationDtosInIdOrder() {
+        try (Stream<ReservationDto> reservations = reservationRepository.streamAllDtos()) {
+            List<Long> ids = reservations.map(ReservationDto::getId).collect(Collectors.toList());
+
+            assertThat(ids, contains(1L, 2L, 3L, 4L));
+        }
+    }
+
     @Test
     public void shouldCreateReservation() {
         Reservation newReservation = Reservation.builder()
@@ -146,4 +171,20 @@ public class ReservationRepositoryTest {
         assertThat(parent.isPresent(), is(true));
         assertThat(parent.get().getReservations(), is(empty()));
     }
+
+    @Test
+    public void shouldFindOverlappingReservationInRoom() {
+        boolean overlapping = reservationRepository.existsOverlapping(2L, null,
+                LocalDate.of(2020, 12, 28), LocalDate.of(2021, 1, 5));
+
+        assertThat(overlapping, is(true));
+    }
+
+    @Test
+    public void shouldIgnoreUpdatedReservationWhenLookingForOverlappingReservation() {
+        boolean overlapping = reservationRepository.existsOverlapping(2L, 3L,
+                LocalDate.of(2020, 12, 28), LocalDate.of(2021, 1, 5));
+
+        assertThat(overlapping, is(false));
+    }
 }
@@ -5,11 +5,16 @@ import com.grapeup.hotelreservation.model.RoomType;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 
@@ -48,4 +53,30 @@ public class RoomRepositoryTest {
 
         assertThat(room.isEmpty(), is(true));
     }
+
+    @Test
+    public void shouldFindBasicRoomsWithoutOverlappingReservations() {
+        List<Room> rooms = roomRepository.findAvailableRooms(RoomType.BASIC,
+                LocalDate.of(2020, 12, 15), LocalDate.of(2020, 12, 16), Pageable.unpaged());
+
+        assertThat(rooms, hasSize(1));
+        assertThat(rooms.get(0).getId(), is(3L));
+    }
+
+    @Test
+    public void shouldFindFirstAvailableBasicRoom() {
+        List<Room> rooms = roomRepository.findAvailableRooms(RoomType.BASIC,
+                LocalDate.of(2022, 1, 1), LocalDate.of(2022, 1, 5), PageRequest.of(0, 1));
+
+        assertThat(rooms, hasSize(1));
+        assertThat(rooms.get(0).getId(), is(2L));
+    }
+
+    @Test
+    public void shouldNotFindAvailableRoomWhenReservationEndsOnStartDate() {
+        List<Room> rooms = roomRepository.findAvailableRooms(RoomType.PENTHOUSE,
+                LocalDate.of(2020, 12, 20), LocalDate.of(2020, 12, 21), Pageable.unpaged());
+
+        assertThat(rooms, is(empty()));
+    }
 }
@@ -0,0 +1,70 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.availability.BitmapAvailabilityIndex;
+import com.grapeup.hotelreservation.availability.IntervalTreeAvailabilityIndex;
+import com.grapeup.hotelreservation.model.RoomType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+@Tag("benchmark")
+public class AvailabilitySearchBenchmark {
+
+    private static final int ROOMS = 5_000;
+    private static final int STAYS_PER_ROOM = 60;
+    private static final int SEARCHES = 20_000;
+    private static final int WARMUP = 5_000;
+    private static final LocalDate YEAR_START = LocalDate.of(2040, 1, 1);
+
+    @Test
+    public void shouldAnswerSearchesWithinOneMillisecondAtP99WithBitmapIndex() {
+        System.out.printf("%-14s %12s %12s%n", "index", "avg [us]", "p99 [us]");
+        long bitmapP99 = run("bitmap", new BitmapAvailabilityIndex());
+        run("interval-tree", new IntervalTreeAvailabilityIndex());
+
+        assertThat(bitmapP99, lessThan(1_000_000L));
+    }
+
+    private long run(String name, AvailabilityIndex availabilityIndex) {
+        Random random = new Random(7);
+        RoomType[] roomTypes = RoomType.values();
+        long reservationId = 0;
+        for (long roomId = 1; roomId <= ROOMS; roomId++) {
+            availabilityIndex.addRoom(roomId, roomTypes[(int) (roomId % roomTypes.length)]);
+            LocalDate startDate = YEAR_START;
+            for (int i = 0; i < STAYS_PER_ROOM; i++) {
+                startDate = startDate.plusDays(1 + random.nextInt(3));
+                LocalDate endDate = startDate.plusDays(random.nextInt(3));
+                availabilityIndex.book(reservationId++, roomId, startDate, endDate);
+                startDate = endDate.plusDays(1);
+            }
+        }
+        AvailabilityService availabilityService = new DefaultAvailabilityService(availabilityIndex);
+
+        long[] latencies = new long[SEARCHES];
+        for (int i = -WARMUP; i < SEARCHES; i++) {
+            LocalDate from = YEAR_START.plusDays(random.nextInt(365));
+            LocalDate to = from.plusDays(1 + random.nextInt(6));
+            int people = 1 + random.nextInt(8);
+
+            long start = System.nanoTime();
+            availabilityService.findAvailableRooms(from, to, people);
+            if (i >= 0) {
+                latencies[i] = System.nanoTime() - start;
+            }
+        }
+
+        Arrays.sort(latencies);
+        long p99 = latencies[(int) (SEARCHES * 0.99)];
+        System.out.printf("%-14s %12.2f %12.2f%n", name,
+                Arrays.stream(latencies).average().orElse(0) / 1000, p99 / 1000.0);
+        return p99;
+    }
+}
@@ -0,0 +1,23 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.availability.BitmapAvailabilityIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(properties = "reservation.availability.engine=bitmap")
+public class BitmapIndexedRoomServiceTest extends IndexedRoomServiceTest {
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Test
+    public void shouldUseBitmapAvailabilityIndex() {
+        assertThat(availabilityIndex, is(instanceOf(BitmapAvailabilityIndex.class)));
+    }
+}
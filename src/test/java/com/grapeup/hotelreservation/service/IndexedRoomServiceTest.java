@@ -0,0 +1,109 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "reservation.availability.engine=interval-tree")
+public class IndexedRoomServiceTest {
+
+    @MockBean
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private RoomService roomService;
+
+    private static Room suite10;
+    private static Room suite11;
+
+    @BeforeAll
+    public static void setup() {
+        suite10 = Room.builder().id(10L).roomType(RoomType.SUITE).build();
+        suite11 = Room.builder().id(11L).roomType(RoomType.SUITE).build();
+    }
+
+    @Test
+    public void shouldUseIndexedRoomService() {
+        assertThat(roomService, is(instanceOf(IndexedRoomService.class)));
+    }
+
+    @Test
+    public void shouldAssignFirstRoomWithoutOverlappingReservation() {
+        availabilityIndex.addRoom(10L, RoomType.SUITE);
+        availabilityIndex.addRoom(11L, RoomType.SUITE);
+        availabilityIndex.book(100L, 10L, LocalDate.of(2030, 8, 1), LocalDate.of(2030, 8, 10));
+        when(roomRepository.findAllById(any())).thenReturn(Arrays.asList(suite10, suite11));
+        when(roomRepository.findById(11L)).thenReturn(Optional.of(suite11));
+
+        Reservation reservation = Reservation.builder().username("test")
+                .numberOfPeople(5).startDate(LocalDate.of(2030, 8, 5))
+                .endDate(LocalDate.of(2030, 8, 15)).build();
+
+        Optional<Room> availableRoom = roomService.assignRoom(reservation);
+
+        assertThat(availableRoom.isPresent(), is(true));
+        assertThat(availableRoom.get().getId(), is(11L));
+    }
+
+    @Test
+    public void shouldNotAssignRoomWhenAllRoomsOfTypeAreBooked() {
+        availabilityIndex.addRoom(10L, RoomType.SUITE);
+        availabilityIndex.addRoom(11L, RoomType.SUITE);
+        availabilityIndex.book(101L, 10L, LocalDate.of(2031, 8, 1), LocalDate.of(2031, 8, 10));
+        availabilityIndex.book(102L, 11L, LocalDate.of(2031, 8, 10), LocalDate.of(2031, 8, 20));
+
+        Reservation reservation = Reservation.builder().username("test")
+                .numberOfPeople(6).startDate(LocalDate.of(2031, 8, 5))
+                .endDate(LocalDate.of(2031, 8, 12)).build();
+
+        assertThat(roomService.assignRoom(reservation).isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldReturnTrueWhenDatesInCurrentRoomAreOverlappingOnlyWithUpdatingReservation() {
+        availabilityIndex.addRoom(10L, RoomType.SUITE);
+        availabilityIndex.book(103L, 10L, LocalDate.of(2032, 8, 1), LocalDate.of(2032, 8, 10));
+
+        Reservation reservation = Reservation.builder().id(103L).username("test")
+                .numberOfPeople(5).startDate(LocalDate.of(2032, 8, 5))
+                .endDate(LocalDate.of(2032, 8, 15)).room(suite10).build();
+
+        assertThat(roomService.areDatesAvailableInCurrentRoom(reservation), is(true));
+    }
+
+    @Test
+    public void shouldReturnFalseWhenDatesInCurrentRoomAreOverlappingWithOtherReservation() {
+        availabilityIndex.addRoom(10L, RoomType.SUITE);
+        availabilityIndex.book(104L, 10L, LocalDate.of(2033, 8, 1), LocalDate.of(2033, 8, 10));
+        availabilityIndex.book(105L, 10L, LocalDate.of(2033, 8, 20), LocalDate.of(2033, 8, 30));
+
+        Reservation reservation = Reservation.builder().id(104L).username("test")
+                .numberOfPeople(5).startDate(LocalDate.of(2033, 8, 5))
+                .endDate(LocalDate.of(2033, 8, 20)).room(suite10).build();
+
+        assertThat(roomService.areDatesAvailableInCurrentRoom(reservation), is(false));
+    }
+}
@@ -0,0 +1,53 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.readmodel.ReservationReadModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {"reservation.persistence.mode=journal", "reservation.archive.enabled=true",
+        "reservation.availability.engine=bitmap",
+        "reservation.journal.directory=target/journal-test/${random.uuid}"})
+@DirtiesContext
+public class JournalReservationArchivingTest {
+
+    @Autowired
+    private ObjectProvider<ReservationArchiver> reservationArchiver;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationReadModel readModel;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    // The seed rows of the reservation table are ids 1 to 4.
+    @Test
+    public void shouldKeepJournalReservationsApartFromReservationTable() {
+        assertThat(reservationArchiver.getIfAvailable(), is(nullValue()));
+
+        Reservation saved = reservationService.save(Reservation.builder().username("journal_user")
+                .numberOfPeople(2).startDate(LocalDate.of(2030, 1, 1)).endDate(LocalDate.of(2030, 1, 5)).build());
+
+        assertThat(saved.getId(), is(greaterThan(4L)));
+        assertThat(readModel.findById(saved.getId()).isPresent(), is(true));
+        assertThat(availabilityIndex.isAvailable(saved.getRoom().getId(), LocalDate.of(2030, 1, 2),
+                LocalDate.of(2030, 1, 3), null), is(false));
+    }
+}
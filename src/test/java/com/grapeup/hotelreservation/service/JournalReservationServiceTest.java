@@ -0,0 +1,121 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.availability.BitmapAvailabilityIndex;
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.repository.ReservationArchiveRepository;
+import com.grapeup.hotelreservation.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JournalReservationServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private IndexedRoomService roomService;
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+
+    private final ReservationArchiveRepository reservationArchiveRepository = mock(ReservationArchiveRepository.class);
+
+    @BeforeEach
+    public void setup() {
+        roomService = mock(IndexedRoomService.class);
+        when(roomService.assignRoom(any(Reservation.class)))
+                .thenReturn(Optional.of(Room.builder().id(1L).roomType(RoomType.BASIC).build()));
+    }
+
+    @Test
+    public void shouldRecoverStateFromSnapshotWrittenOnClose() throws IOException {
+        JournalReservationService service = createService(new BitmapAvailabilityIndex(), 100);
+        Reservation first = service.save(reservation(LocalDate.of(2030, 1, 1)));
+        service.save(reservation(LocalDate.of(2030, 2, 1)));
+        service.delete(first.getId());
+        service.close();
+
+        AvailabilityIndex recoveredIndex = new BitmapAvailabilityIndex();
+        JournalReservationService recovered = createService(recoveredIndex, 100);
+
+        List<Reservation> reservations = recovered.findAll();
+        assertThat(reservations.size(), is(1));
+        assertThat(reservations.get(0).getId(), is(2L));
+        assertThat(reservations.get(0).getRoom().getId(), is(1L));
+        assertThat(recoveredIndex.isAvailable(1L, LocalDate.of(2030, 2, 2),
+                LocalDate.of(2030, 2, 3), null), is(false));
+        assertThat(recoveredIndex.isAvailable(1L, LocalDate.of(2030, 1, 2),
+                LocalDate.of(2030, 1, 3), null), is(true));
+        assertThat(recovered.save(reservation(LocalDate.of(2030, 3, 1))).getId(), is(3L));
+    }
+
+    @Test
+    public void shouldRecoverFromSnapshotAndJournalTail() throws IOException {
+        JournalReservationService service = createService(new BitmapAvailabilityIndex(), 2);
+        service.save(reservation(LocalDate.of(2030, 1, 1)));
+        service.save(reservation(LocalDate.of(2030, 2, 1)));
+        service.save(reservation(LocalDate.of(2030, 3, 1)));
+
+        // Simulates a crash: the journal tail is not folded into a snapshot.
+        JournalReservationService recovered = createService(new BitmapAvailabilityIndex(), 2);
+
+        assertThat(recovered.findAll().stream().map(Reservation::getId)
+                .collect(Collectors.toList()), contains(1L, 2L, 3L));
+    }
+
+    @Test
+    public void shouldNumberReservationsAfterExistingTableRows() throws IOException {
+        when(reservationRepository.findMaxId()).thenReturn(Optional.of(4L));
+        when(reservationArchiveRepository.findMaxId()).thenReturn(Optional.of(7L));
+
+        JournalReservationService service = createService(new BitmapAvailabilityIndex(), 100);
+
+        assertThat(service.save(reservation(LocalDate.of(2030, 1, 1))).getId(), is(8L));
+    }
+
+    @Test
+    public void shouldNotUpdateDeletedReservation() throws IOException {
+        JournalReservationService service = createService(new BitmapAvailabilityIndex(), 100);
+        Reservation saved = service.save(reservation(LocalDate.of(2030, 1, 1)));
+        Reservation existing = service.findById(saved.getId()).get();
+        service.delete(saved.getId());
+
+        Reservation changed = reservation(LocalDate.of(2030, 1, 2));
+        changed.setId(saved.getId());
+        changed.setRoom(existing.getRoom());
+
+        assertThat(service.update(changed, existing).isPresent(), is(false));
+        assertThat(service.findAll().isEmpty(), is(true));
+    }
+
+    private JournalReservationService createService(AvailabilityIndex availabilityIndex,
+                                                    int snapshotEvery) throws IOException {
+        availabilityIndex.addRoom(1L, RoomType.BASIC);
+        JournalReservationService service = new JournalReservationService(roomService, availabilityIndex,
+                new ReservationLocks(8), event -> { }, reservationRepository, reservationArchiveRepository,
+                directory.toString(), 1024, true, snapshotEvery);
+        service.recover();
+        return service;
+    }
+
+    private static Reservation reservation(LocalDate startDate) {
+        return Reservation.builder().username("guest").numberOfPeople(2)
+                .startDate(startDate).endDate(startDate.plusDays(3)).build();
+    }
+}
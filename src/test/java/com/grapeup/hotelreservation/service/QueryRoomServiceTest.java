@@ -0,0 +1,71 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.model.RoomType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "reservation.availability.engine=sql")
+public class QueryRoomServiceTest {
+
+    @Autowired
+    private RoomService roomService;
+
+    @Test
+    public void shouldUseQueryRoomService() {
+        assertThat(roomService, is(instanceOf(QueryRoomService.class)));
+    }
+
+    @Test
+    public void shouldAssignRoomWithoutOverlappingReservation() {
+        Reservation reservation = Reservation.builder().username("test")
+                .numberOfPeople(3).startDate(LocalDate.of(2020, 12, 1))
+                .endDate(LocalDate.of(2020, 12, 12)).build();
+
+        Optional<Room> availableRoom = roomService.assignRoom(reservation);
+
+        assertThat(availableRoom.isPresent(), is(true));
+        assertThat(availableRoom.get().getId(), is(3L));
+    }
+
+    @Test
+    public void shouldNotAssignRoomWhenAllRoomsOfTypeAreBooked() {
+        Reservation reservation = Reservation.builder().username("test")
+                .numberOfPeople(8).startDate(LocalDate.of(2021, 12, 20))
+                .endDate(LocalDate.of(2021, 12, 22)).build();
+
+        assertThat(roomService.assignRoom(reservation).isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldReturnTrueWhenDatesInCurrentRoomAreOverlappingOnlyWithUpdatingReservation() {
+        Reservation reservation = Reservation.builder().id(3L).username("test_user")
+                .numberOfPeople(3).startDate(LocalDate.of(2020, 12, 10))
+                .endDate(LocalDate.of(2021, 1, 10))
+                .room(Room.builder().id(2L).roomType(RoomType.BASIC).build()).build();
+
+        assertThat(roomService.areDatesAvailableInCurrentRoom(reservation), is(true));
+    }
+
+    @Test
+    public void shouldReturnFalseWhenDatesInCurrentRoomAreOverlappingWithOtherReservation() {
+        Reservation reservation = Reservation.builder().id(3L).username("test_user")
+                .numberOfPeople(3).startDate(LocalDate.of(2020, 12, 10))
+                .endDate(LocalDate.of(2021, 12, 12))
+                .room(Room.builder().id(2L).roomType(RoomType.BASIC).build()).build();
+
+        assertThat(roomService.areDatesAvailableInCurrentRoom(reservation), is(false));
+    }
+}
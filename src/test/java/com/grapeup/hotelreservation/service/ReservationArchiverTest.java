@@ -0,0 +1,52 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.repository.ReservationArchiveRepository;
+import com.grapeup.hotelreservation.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {"reservation.archive.enabled=true",
+        "reservation.archive.batch-size=1"})
+@DirtiesContext
+public class ReservationArchiverTest {
+
+    @Autowired
+    private ReservationArchiver reservationArchiver;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationArchiveRepository reservationArchiveRepository;
+
+    @Test
+    public void shouldMoveEndedReservationsToArchiveInBatches() {
+        int archived = reservationArchiver.archiveEndedBefore(LocalDate.of(2021, 1, 1));
+
+        assertThat(archived, is(2));
+        assertThat(reservationRepository.count(), is(2L));
+        assertThat(reservationArchiveRepository.count(), is(2L));
+        assertThat(reservationRepository.findById(1L).isPresent(), is(false));
+        assertThat(reservationRepository.findById(3L).isPresent(), is(false));
+
+        Optional<Reservation> archivedReservation = reservationService.findByIdIncludingArchived(3L);
+        assertThat(archivedReservation.isPresent(), is(true));
+        assertThat(archivedReservation.get().getEndDate(), is(LocalDate.of(2020, 12, 28)));
+        assertThat(archivedReservation.get().getRoom().getId(), is(2L));
+    }
+}
@@ -0,0 +1,97 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.exception.AvailableRoomNotFoundException;
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "reservation.availability.engine=interval-tree")
+@DirtiesContext
+public class ReservationConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int BOOKINGS_PER_THREAD = 40;
+    private static final LocalDate WINDOW_START = LocalDate.of(2040, 1, 1);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Test
+    public void shouldNeverAssignOverlappingReservationsToSameRoom() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            Random random = new Random(thread);
+            Callable<Void> worker = () -> {
+                start.await();
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    LocalDate startDate = WINDOW_START.plusDays(random.nextInt(60));
+                    Reservation reservation = Reservation.builder().username("stress")
+                            .numberOfPeople(1 + random.nextInt(4)).startDate(startDate)
+                            .endDate(startDate.plusDays(1 + random.nextInt(4))).build();
+                    try {
+                        reservationService.save(reservation);
+                        booked.incrementAndGet();
+                    } catch (AvailableRoomNotFoundException e) {
+                        // sold out for these dates, expected under contention
+                    }
+                }
+                return null;
+            };
+            workers.add(executor.submit(worker));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+
+        Map<Long, List<Reservation>> reservationsByRoom = reservationRepository.findAll().stream()
+                .filter(reservation -> !reservation.getStartDate().isBefore(WINDOW_START))
+                .collect(Collectors.groupingBy(reservation -> reservation.getRoom().getId()));
+
+        assertThat(booked.get(), is(greaterThan(0)));
+        assertThat(reservationsByRoom.values().stream().mapToInt(List::size).sum(), is(booked.get()));
+        reservationsByRoom.values().forEach(reservations -> {
+            for (int i = 0; i < reservations.size(); i++) {
+                for (int j = i + 1; j < reservations.size(); j++) {
+                    assertThat(overlap(reservations.get(i), reservations.get(j)), is(false));
+                }
+            }
+        });
+    }
+
+    private static boolean overlap(Reservation first, Reservation second) {
+        return !first.getEndDate().isBefore(second.getStartDate())
+                && !second.getEndDate().isBefore(first.getStartDate());
+    }
+}
@@ -0,0 +1,95 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.dto.ReservationImportDto;
+import com.grapeup.hotelreservation.model.Reservation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.StringReader;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "reservation.import.chunk-size=2")
+@DirtiesContext
+public class ReservationImporterTest {
+
+    private static final String HEADER = "username,numberOfPeople,startDate,endDate\n";
+
+    @Autowired
+    private ReservationImporter reservationImporter;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    public void shouldImportValidRowsAndReportRejectedOnes() throws Exception {
+        String csv = HEADER
+                + "import_user,2,2030-01-01,2030-01-05\n"
+                + "import_user,2,2030-01-01,2030-01-05\n"
+                + "import_user,9,2030-01-01,2030-01-05\n"
+                + "import_user,2,2030-02-05,2030-02-01\n"
+                + "import_user,2,2030-03-01,2030-03-05\n";
+
+        ReservationImportDto result = reservationImporter.importCsv("full", new StringReader(csv));
+
+        assertThat(result.isCompleted(), is(true));
+        assertThat(result.getProcessedRows(), is(5L));
+        assertThat(result.getImportedRows(), is(3L));
+        assertThat(result.getRejectedRows(), is(2L));
+        assertThat(result.getErrors(), hasSize(2));
+        assertThat(result.getErrors().get(0).startsWith("row 3: numberOfPeople"), is(true));
+        assertThat(result.getErrors().get(1), is("row 4: Reservation start date should be before end date"));
+        assertThat(countFor("import_user"), is(3L));
+    }
+
+    @Test
+    public void shouldResumeAfterLastCommittedChunk() throws Exception {
+        String firstRows = HEADER
+                + "resumed_user,1,2031-01-01,2031-01-05\n"
+                + "resumed_user,1,2031-02-01,2031-02-05\n";
+        String csv = firstRows
+                + "resumed_user,1,2031-03-01,2031-03-05\n";
+
+        reservationImporter.importCsv("resume", new StringReader(firstRows));
+        ReservationImportDto result = reservationImporter.importCsv("resume", new StringReader(csv));
+
+        assertThat(result.getProcessedRows(), is(3L));
+        assertThat(result.getImportedRows(), is(3L));
+        assertThat(countFor("resumed_user"), is(3L));
+        assertThat(reservationService.findAll().stream()
+                .filter(reservation -> reservation.getUsername().equals("resumed_user"))
+                .map(reservation -> reservation.getStartDate().getMonthValue())
+                .sorted()
+                .collect(Collectors.toList()), contains(1, 2, 3));
+    }
+
+    @Test
+    public void shouldReadQuotedFieldsAndRejectUnterminatedOnes() throws Exception {
+        String csv = HEADER
+                + "\"quoted, \"\"user\"\"\",2,2032-01-01,2032-01-05\n"
+                + "\"quoted, user,2,2032-02-01,2032-02-05\n";
+
+        ReservationImportDto result = reservationImporter.importCsv("quoted", new StringReader(csv));
+
+        assertThat(result.getImportedRows(), is(1L));
+        assertThat(result.getRejectedRows(), is(1L));
+        assertThat(result.getErrors(), contains("row 2: unterminated quoted field"));
+        assertThat(countFor("quoted, \"user\""), is(1L));
+    }
+
+    private long countFor(String username) {
+        return reservationService.findAll().stream()
+                .map(Reservation::getUsername)
+                .filter(username::equals)
+                .count();
+    }
+}
@@ -0,0 +1,96 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.model.Reservation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ReservationLocksTest {
+
+    private final ReservationLocks reservationLocks = new ReservationLocks(64);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldSerializeReservationsForSameRoomTypeAndWeek() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> reservationLocks.withLock(
+                reservation(3, LocalDate.of(2030, 8, 1), LocalDate.of(2030, 8, 3)),
+                () -> await(holding, release)));
+        holding.await();
+
+        Future<Boolean> conflicting = executor.submit(() -> reservationLocks.withLock(
+                reservation(2, LocalDate.of(2030, 8, 2), LocalDate.of(2030, 8, 4)),
+                () -> true));
+
+        assertThrows(TimeoutException.class, () -> conflicting.get(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertThat(conflicting.get(1, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void shouldNotBlockReservationsForDifferentWeeks() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> reservationLocks.withLock(
+                reservation(3, LocalDate.of(2030, 8, 1), LocalDate.of(2030, 8, 3)),
+                () -> await(holding, release)));
+        holding.await();
+
+        Future<Boolean> otherWeek = executor.submit(() -> reservationLocks.withLock(
+                reservation(3, LocalDate.of(2030, 9, 1), LocalDate.of(2030, 9, 3)),
+                () -> true));
+
+        assertThat(otherWeek.get(1, TimeUnit.SECONDS), is(true));
+        release.countDown();
+    }
+
+    @Test
+    public void shouldNotBlockReservationsForDifferentRoomTypes() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> reservationLocks.withLock(
+                reservation(3, LocalDate.of(2030, 8, 1), LocalDate.of(2030, 8, 3)),
+                () -> await(holding, release)));
+        holding.await();
+
+        Future<Boolean> otherType = executor.submit(() -> reservationLocks.withLock(
+                reservation(8, LocalDate.of(2030, 8, 1), LocalDate.of(2030, 8, 3)),
+                () -> true));
+
+        assertThat(otherType.get(1, TimeUnit.SECONDS), is(true));
+        release.countDown();
+    }
+
+    private static Reservation reservation(int numberOfPeople, LocalDate startDate, LocalDate endDate) {
+        return Reservation.builder().username("test").numberOfPeople(numberOfPeople)
+                .startDate(startDate).endDate(endDate).build();
+    }
+
+    private static Boolean await(CountDownLatch holding, CountDownLatch release) {
+        holding.countDown();
+        try {
+            return release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
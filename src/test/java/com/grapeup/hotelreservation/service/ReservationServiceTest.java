@@ -1,5 +1,6 @@
 package com.grapeup.hotelreservation.service;
 
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
 import com.grapeup.hotelreservation.exception.AvailableRoomNotFoundException;
 import com.grapeup.hotelreservation.model.Reservation;
 import com.grapeup.hotelreservation.model.Room;
@@ -11,8 +12,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -28,7 +32,9 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,6 +52,9 @@ public class ReservationServiceTest {
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
     private static Reservation mockReservation;
     private static Room mockRoom;
 
@@ -104,6 +113,64 @@ public class ReservationServiceTest {
         assertThat(reservation.get().getRoom().getId(), is(mockReservation.getRoom().getId()));
     }
 
+    @Test
+    public void shouldSaveBatchAndReportItemsWithoutAvailableRoom() {
+        Room room = Room.builder().id(2L).roomType(RoomType.BASIC).reservations(new HashSet<>()).build();
+        Reservation available = Reservation.builder().username("test")
+                .numberOfPeople(3).startDate(LocalDate.of(2020, 8, 1))
+                .endDate(LocalDate.of(2020, 9, 1)).build();
+        Reservation soldOut = Reservation.builder().username("test")
+                .numberOfPeople(3).startDate(LocalDate.of(2020, 8, 1))
+                .endDate(LocalDate.of(2020, 9, 1)).build();
+
+        // Reservation.equals compares ids, which are both null here, so the
+        // stubs match on identity.
+        when(roomService.assignRoom(argThat(reservation -> reservation == available))).thenReturn(Optional.of(room));
+        when(roomService.assignRoom(argThat(reservation -> reservation == soldOut))).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            ReflectionTestUtils.setField((Reservation) invocation.getArgument(0), "id", 10L);
+            return available;
+        }).when(reservationRepository).save(argThat(reservation -> reservation == available));
+
+        List<Optional<Reservation>> saved = reservationService.saveAll(Arrays.asList(available, soldOut));
+
+        assertThat(saved, hasSize(2));
+        assertThat(saved.get(0).isPresent(), is(true));
+        assertThat(saved.get(0).get().getId(), is(10L));
+        assertThat(saved.get(0).get().getRoom().getId(), is(2L));
+        assertThat(saved.get(1).isEmpty(), is(true));
+        assertThat(room.getReservations(), hasSize(1));
+        verify(reservationRepository, times(1)).save(any(Reservation.class));
+    }
+
+    @Test
+    public void shouldTakeBackIndexBookingWhenCommitFails() {
+        Room room = Room.builder().id(2L).roomType(RoomType.BASIC).build();
+        Reservation reservation = Reservation.builder().username("test")
+                .numberOfPeople(3).startDate(LocalDate.of(2040, 8, 1))
+                .endDate(LocalDate.of(2040, 8, 5)).build();
+
+        // Stands in for an insert failing when it is flushed at commit.
+        doAnswer(invocation -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    throw new DataIntegrityViolationException("reservation_pk");
+                }
+            });
+            return Optional.of(room);
+        }).when(roomService).assignRoom(argThat(r -> r == reservation));
+        doAnswer(invocation -> {
+            ReflectionTestUtils.setField((Reservation) invocation.getArgument(0), "id", 20L);
+            return reservation;
+        }).when(reservationRepository).save(argThat(r -> r == reservation));
+
+        assertThrows(DataIntegrityViolationException.class, () -> reservationService.save(reservation));
+
+        assertThat(availabilityIndex.isAvailable(2L, LocalDate.of(2040, 8, 2),
+                LocalDate.of(2040, 8, 3), null), is(true));
+    }
+
     @Test
     public void shouldReturnNoReservationForUnknownId() {
         when(reservationRepository.findById(anyLong())).thenReturn(Optional.empty());
@@ -245,8 +312,27 @@ public class ReservationServiceTest {
 
     @Test
     public void shouldDeleteReservationById() {
-        reservationService.delete(any());
-        verify(reservationRepository, times(1)).deleteById(any());
+        when(reservationRepository.findById(1L)).thenReturn(Optional.of(mockReservation));
+
+        reservationService.delete(1L);
+
+        verify(reservationRepository, times(1)).deleteById(1L);
+    }
+
+    @Test
+    public void shouldKeepIndexBookingWhenDeleteFails() {
+        Reservation reservation = Reservation.builder().id(30L).username("test")
+                .numberOfPeople(3).startDate(LocalDate.of(2041, 8, 1))
+                .endDate(LocalDate.of(2041, 8, 5)).room(mockRoom).build();
+        availabilityIndex.book(30L, 1L, reservation.getStartDate(), reservation.getEndDate());
+        when(reservationRepository.findById(30L)).thenReturn(Optional.of(reservation));
+        doThrow(new DataIntegrityViolationException("reservation_fk")).when(reservationRepository).deleteById(30L);
+
+        assertThrows(DataIntegrityViolationException.class, () -> reservationService.delete(30L));
+
+        assertThat(availabilityIndex.isAvailable(1L, LocalDate.of(2041, 8, 2),
+                LocalDate.of(2041, 8, 3), null), is(false));
+        availabilityIndex.release(30L);
     }
 
     @Test
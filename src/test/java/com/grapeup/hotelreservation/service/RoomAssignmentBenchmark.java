@@ -0,0 +1,94 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.availability.IntervalTreeAvailabilityIndex;
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.model.RoomType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+@Tag("benchmark")
+public class RoomAssignmentBenchmark {
+
+    private static final int ROOMS = 50;
+    private static final int REQUESTS = 5_000;
+    private static final LocalDate YEAR_START = LocalDate.of(2040, 1, 1);
+    private static final int DAYS = 365;
+
+    @Test
+    public void shouldReportLatencyAndOccupancyForEachStrategy() {
+        List<Reservation> requests = syntheticYear();
+
+        System.out.printf("%-12s %10s %10s %12s %12s%n",
+                "strategy", "accepted", "occupancy", "avg [us]", "p99 [us]");
+        run("first-fit", index -> new FirstFitRoomAssignmentStrategy(), requests);
+        run("best-fit", BestFitRoomAssignmentStrategy::new, requests);
+        run("round-robin", index -> new RoundRobinRoomAssignmentStrategy(), requests);
+    }
+
+    private void run(String name, Function<AvailabilityIndex, RoomAssignmentStrategy> strategyFactory,
+                     List<Reservation> requests) {
+        AvailabilityIndex availabilityIndex = new IntervalTreeAvailabilityIndex();
+        List<Room> rooms = LongStream.rangeClosed(1, ROOMS)
+                .mapToObj(id -> Room.builder().id(id).roomType(RoomType.BASIC).build())
+                .collect(Collectors.toList());
+        rooms.forEach(room -> availabilityIndex.addRoom(room.getId(), RoomType.BASIC));
+        RoomAssignmentStrategy strategy = strategyFactory.apply(availabilityIndex);
+
+        long[] latencies = new long[requests.size()];
+        long bookedNights = 0;
+        int accepted = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            Reservation request = requests.get(i);
+
+            long start = System.nanoTime();
+            List<Long> freeIds = availabilityIndex.findAvailableRooms(RoomType.BASIC,
+                    request.getStartDate(), request.getEndDate());
+            List<Room> freeRooms = new ArrayList<>(freeIds.size());
+            freeIds.forEach(id -> freeRooms.add(rooms.get(id.intValue() - 1)));
+            List<Room> ordered = strategy.order(freeRooms, request);
+            latencies[i] = System.nanoTime() - start;
+
+            if (!ordered.isEmpty()) {
+                availabilityIndex.book((long) i, ordered.get(0).getId(),
+                        request.getStartDate(), request.getEndDate());
+                bookedNights += ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) + 1;
+                accepted++;
+            }
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("%-12s %10d %9.1f%% %12.2f %12.2f%n", name, accepted,
+                100.0 * bookedNights / ((long) ROOMS * DAYS),
+                Arrays.stream(latencies).average().orElse(0) / 1000,
+                latencies[(int) (latencies.length * 0.99)] / 1000.0);
+        assertThat(accepted, is(greaterThan(0)));
+    }
+
+    private static List<Reservation> syntheticYear() {
+        Random random = new Random(42);
+        List<Reservation> requests = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int length = random.nextInt(10) < 7 ? 1 + random.nextInt(3) : 4 + random.nextInt(10);
+            LocalDate startDate = YEAR_START.plusDays(random.nextInt(DAYS - length));
+            requests.add(Reservation.builder().username("benchmark").numberOfPeople(2)
+                    .startDate(startDate).endDate(startDate.plusDays(length - 1)).build());
+        }
+        return requests;
+    }
+}
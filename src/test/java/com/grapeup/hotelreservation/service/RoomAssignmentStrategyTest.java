@@ -0,0 +1,110 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.availability.AvailabilityIndex;
+import com.grapeup.hotelreservation.availability.IntervalTreeAvailabilityIndex;
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.Room;
+import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RoomAssignmentStrategyTest {
+
+    private AvailabilityIndex availabilityIndex;
+
+    private List<Room> rooms;
+
+    private Reservation reservation;
+
+    @BeforeEach
+    public void setup() {
+        availabilityIndex = new IntervalTreeAvailabilityIndex();
+        rooms = Arrays.asList(room(1L), room(2L), room(3L));
+        rooms.forEach(room -> availabilityIndex.addRoom(room.getId(), RoomType.BASIC));
+        reservation = Reservation.builder().username("test").numberOfPeople(2)
+                .startDate(LocalDate.of(2030, 5, 10)).endDate(LocalDate.of(2030, 5, 12)).build();
+    }
+
+    @Test
+    public void shouldKeepOrderOfAvailableRoomsForFirstFit() {
+        List<Room> ordered = new FirstFitRoomAssignmentStrategy().order(rooms, reservation);
+
+        assertThat(ids(ordered), contains(1L, 2L, 3L));
+        assertThat(new FirstFitRoomAssignmentStrategy().needsAllCandidates(), is(false));
+    }
+
+    @Test
+    public void shouldPreferRoomWithSmallestAdjacentGapsForBestFit() {
+        availabilityIndex.book(1L, 2L, LocalDate.of(2030, 5, 1), LocalDate.of(2030, 5, 9));
+        availabilityIndex.book(2L, 2L, LocalDate.of(2030, 5, 13), LocalDate.of(2030, 5, 20));
+        availabilityIndex.book(3L, 3L, LocalDate.of(2030, 5, 1), LocalDate.of(2030, 5, 7));
+
+        List<Room> ordered = new BestFitRoomAssignmentStrategy(availabilityIndex).order(rooms, reservation);
+
+        assertThat(ids(ordered), contains(2L, 3L, 1L));
+    }
+
+    @Test
+    public void shouldRotateAvailableRoomsForRoundRobin() {
+        RoundRobinRoomAssignmentStrategy strategy = new RoundRobinRoomAssignmentStrategy();
+
+        assertThat(ids(strategy.order(rooms, reservation)), contains(1L, 2L, 3L));
+        assertThat(ids(strategy.order(rooms, reservation)), contains(2L, 3L, 1L));
+        assertThat(ids(strategy.order(rooms, reservation)), contains(3L, 1L, 2L));
+    }
+
+    @Test
+    public void shouldPreferHighestRatedRoomsForRating() {
+        RoomRatingRanking ranking = new RoomRatingRanking(null, null);
+        ranking.rebuild(Arrays.asList(room(1L, 3.0), room(2L, 4.5), room(3L, 4.0)));
+
+        List<Room> ordered = new RatingRoomAssignmentStrategy(ranking).order(rooms, reservation);
+
+        assertThat(ids(ordered), contains(2L, 3L, 1L));
+        assertThat(ranking.order(RoomType.BASIC), contains(2L, 3L, 1L));
+    }
+
+    @Test
+    public void shouldAssignHighestRatedFreeRoomWithoutLoadingOtherCandidates() {
+        RoomRatingRanking ranking = new RoomRatingRanking(null, null);
+        ranking.rebuild(Arrays.asList(room(1L, 3.0), room(2L, 4.5), room(3L, 4.0)));
+        availabilityIndex.book(1L, 2L, LocalDate.of(2030, 5, 1), LocalDate.of(2030, 5, 11));
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        when(roomRepository.findById(3L)).thenReturn(Optional.of(rooms.get(2)));
+
+        Optional<Room> assigned = new IndexedRoomService(roomRepository, availabilityIndex,
+                new RatingRoomAssignmentStrategy(ranking)).assignRoom(reservation);
+
+        assertThat(assigned.get().getId(), is(3L));
+        verify(roomRepository, never()).findById(1L);
+        verify(roomRepository, never()).findAllById(any());
+    }
+
+    private static Room room(Long id, double rating) {
+        return Room.builder().id(id).roomType(RoomType.BASIC).rating(rating).build();
+    }
+
+    private static Room room(Long id) {
+        return Room.builder().id(id).roomType(RoomType.BASIC).build();
+    }
+
+    private static List<Long> ids(List<Room> rooms) {
+        return rooms.stream().map(Room::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,164 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.dto.ReservationImportDto;
+import com.grapeup.hotelreservation.exception.AvailableRoomNotFoundException;
+import com.grapeup.hotelreservation.model.Reservation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {
+        "reservation.persistence.mode=room-nights",
+        "reservation.availability.engine=interval-tree"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class RoomNightReservationServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2040, 3, 10);
+    private static final LocalDate END = LocalDate.of(2040, 3, 12);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReservationImporter reservationImporter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void shouldUseRoomNightServiceAndClaimExistingReservations() {
+        assertThat(reservationService, is(instanceOf(RoomNightReservationService.class)));
+        assertThat(countNights(1L), is(4));
+        assertThat(countNights(3L), is(17));
+    }
+
+    @Test
+    public void shouldReportExistingReservationsThatOverlap() {
+        jdbcTemplate.update("INSERT INTO reservation VALUES(2000, 'overlapping', 3, '2020-12-20', '2020-12-22', 2)");
+        jdbcTemplate.update("INSERT INTO reservation VALUES(2001, 'unclaimed', 3, '2020-12-20', '2020-12-22', 3)");
+
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class,
+                () -> ((RoomNightReservationService) reservationService).claimExistingReservations());
+
+        assertThat(e.getMessage(), containsString("reservation 2000 overlaps reservations [3] in room 2"));
+        assertThat(countNights(2000L), is(0));
+        assertThat(countNights(2001L), is(3));
+    }
+
+    @Test
+    public void shouldClaimEveryNightOfNewReservation() {
+        Reservation saved = reservationService.save(basicReservation());
+
+        assertThat(saved.getRoom().getId(), is(2L));
+        assertThat(countNights(saved.getId()), is(3));
+    }
+
+    @Test
+    public void shouldTryNextRoomWhenNightsWereClaimedElsewhere() {
+        bookElsewhere(1000L, 2L);
+
+        Reservation saved = reservationService.save(basicReservation());
+
+        assertThat(saved.getRoom().getId(), is(3L));
+        assertThat(countNights(saved.getId()), is(3));
+    }
+
+    @Test
+    public void shouldThrowWhenAllRoomsWereClaimedElsewhere() {
+        bookElsewhere(1000L, 2L);
+        bookElsewhere(1001L, 3L);
+
+        Assertions.assertThrows(AvailableRoomNotFoundException.class,
+                () -> reservationService.save(basicReservation()));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reservation WHERE username = 'nights'", Integer.class), is(0));
+    }
+
+    @Test
+    public void shouldReplaceNightsOnUpdate() {
+        Reservation saved = reservationService.save(basicReservation());
+        Reservation existing = basicReservation();
+        Reservation updated = basicReservation();
+        updated.setId(saved.getId());
+        updated.setRoom(saved.getRoom());
+        updated.setEndDate(END.plusDays(4));
+
+        Reservation result = reservationService.update(updated, existing).get();
+
+        assertThat(result.getRoom().getId(), is(2L));
+        assertThat(countNights(saved.getId()), is(7));
+    }
+
+    @Test
+    public void shouldReleaseNightsOnDelete() {
+        Reservation saved = reservationService.save(basicReservation());
+
+        reservationService.delete(saved.getId());
+
+        assertThat(countNights(saved.getId()), is(0));
+    }
+
+    @Test
+    public void shouldTryNextRoomInsideCallerTransaction() {
+        bookElsewhere(1000L, 2L);
+
+        List<Optional<Reservation>> saved = transactionTemplate.execute(
+                status -> reservationService.saveAll(List.of(basicReservation())));
+
+        assertThat(saved.get(0).get().getRoom().getId(), is(3L));
+    }
+
+    @Test
+    public void shouldReportImportedRowAsUnavailableWhenNightsWereClaimedElsewhere() throws Exception {
+        bookElsewhere(1000L, 2L);
+        String csv = "username,numberOfPeople,startDate,endDate\n"
+                + "nights,2," + START + "," + END + "\n"
+                + "nights,2," + START + "," + END + "\n";
+
+        ReservationImportDto result = reservationImporter.importCsv("nights", new StringReader(csv));
+
+        assertThat(result.isCompleted(), is(true));
+        assertThat(result.getImportedRows(), is(1L));
+        assertThat(result.getRejectedRows(), is(1L));
+        assertThat(result.getErrors(), contains("row 2: No rooms available"));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reservation WHERE username = 'nights'", Integer.class), is(1));
+    }
+
+    private Reservation basicReservation() {
+        return Reservation.builder().username("nights").numberOfPeople(2)
+                .startDate(START).endDate(END).build();
+    }
+
+    private void bookElsewhere(Long reservationId, Long roomId) {
+        jdbcTemplate.update("INSERT INTO reservation VALUES(?, 'elsewhere', 2, ?, ?, ?)",
+                reservationId, START, END, roomId);
+        jdbcTemplate.update("INSERT INTO room_night VALUES(?, ?, ?)", roomId, START.plusDays(1), reservationId);
+    }
+
+    private int countNights(Long reservationId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM room_night WHERE reservation_id = ?", Integer.class, reservationId);
+    }
+}
@@ -0,0 +1,55 @@
+package com.grapeup.hotelreservation.service;
+
+import com.grapeup.hotelreservation.dto.RoomRatingDto;
+import com.grapeup.hotelreservation.model.Reservation;
+import com.grapeup.hotelreservation.model.RoomType;
+import com.grapeup.hotelreservation.repository.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {"reservation.ratings.sync.enabled=true", "reservation.assignment.strategy=rating",
+        "reservation.availability.engine=interval-tree"})
+@DirtiesContext
+public class RoomRatingSynchronizerTest {
+
+    @Autowired
+    private RoomRatingSynchronizer roomRatingSynchronizer;
+
+    @Autowired
+    private RoomRatingRanking roomRatingRanking;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Test
+    public void shouldApplyChangedRatingsAndAssignHighestRatedRoom() {
+        List<RoomRatingDto> ratings = List.of(new RoomRatingDto(1L, 4.5), new RoomRatingDto(2L, 3.5),
+                new RoomRatingDto(3L, 4.8));
+
+        assertThat(roomRatingRanking.order(RoomType.BASIC), contains(2L, 3L));
+        assertThat(roomRatingSynchronizer.synchronize(ratings), is(1));
+        assertThat(roomRatingSynchronizer.synchronize(ratings), is(0));
+
+        assertThat(roomRepository.findById(3L).get().getRating(), is(4.8));
+        assertThat(roomRatingRanking.order(RoomType.BASIC), contains(3L, 2L));
+
+        Reservation reservation = Reservation.builder().username("test").numberOfPeople(3)
+                .startDate(LocalDate.of(2030, 6, 1)).endDate(LocalDate.of(2030, 6, 5)).build();
+        assertThat(roomService.assignRoom(reservation).get().getId(), is(3L));
+    }
+}
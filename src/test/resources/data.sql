@@ -1,3 +1,6 @@
+DROP TABLE IF EXISTS room_night;
+DROP TABLE IF EXISTS reservation_archive;
+DROP TABLE IF EXISTS reservation_import;
 DROP TABLE IF EXISTS room CASCADE;
 CREATE TABLE IF NOT EXISTS room (
   id          INTEGER PRIMARY KEY auto_increment,
@@ -7,7 +10,7 @@ CREATE TABLE IF NOT EXISTS room (
 
 DROP TABLE IF EXISTS reservation;
 CREATE TABLE IF NOT EXISTS reservation (
-  id          INTEGER PRIMARY KEY auto_increment,
+  id          INTEGER PRIMARY KEY,
   username    VARCHAR(64) NOT NULL,
   number_of_people INTEGER NOT NULL,
   start_date  DATE NOT NULL,
@@ -16,6 +19,36 @@ CREATE TABLE IF NOT EXISTS reservation (
   PRIMARY KEY (id),
   FOREIGN KEY (room_id) REFERENCES room (id));
 
+DROP SEQUENCE IF EXISTS reservation_seq;
+CREATE SEQUENCE reservation_seq START WITH 5 INCREMENT BY 50;
+
+CREATE INDEX reservation_room_dates ON reservation (room_id, start_date, end_date);
+CREATE INDEX reservation_end_date ON reservation (end_date);
+
+CREATE TABLE IF NOT EXISTS reservation_archive (
+  id          INTEGER PRIMARY KEY,
+  username    VARCHAR(64) NOT NULL,
+  number_of_people INTEGER NOT NULL,
+  start_date  DATE NOT NULL,
+  end_date    DATE NOT NULL,
+  room_id INTEGER,
+  FOREIGN KEY (room_id) REFERENCES room (id));
+
+CREATE TABLE IF NOT EXISTS reservation_import (
+  id             VARCHAR(64) PRIMARY KEY,
+  processed_rows BIGINT NOT NULL,
+  imported_rows  BIGINT NOT NULL,
+  rejected_rows  BIGINT NOT NULL,
+  completed      BOOLEAN NOT NULL);
+
+CREATE TABLE IF NOT EXISTS room_night (
+  room_id        INTEGER NOT NULL,
+  night          DATE NOT NULL,
+  reservation_id INTEGER NOT NULL,
+  PRIMARY KEY (room_id, night),
+  FOREIGN KEY (room_id) REFERENCES room (id),
+  FOREIGN KEY (reservation_id) REFERENCES reservation (id) ON DELETE CASCADE);
+
 INSERT INTO room VALUES(1, 'PENTHOUSE', 4.5);
 INSERT INTO room VALUES(2, 'BASIC', 3.5);
 INSERT INTO room VALUES(3, 'BASIC', 3.5);